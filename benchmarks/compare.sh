@@ -0,0 +1,4 @@
+#!/bin/sh
+# Compares two JMH result files and exits with 1 if a benchmark got slower than the threshold allows.
+# Usage: benchmarks/compare.sh base.json new.json [threshold-percent]
+exec "${JAVA_HOME:+$JAVA_HOME/bin/}java" -cp "$(dirname "$0")/target/benchmarks.jar" ru.practicum.shareit.benchmark.CompareResults "$@"
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+/**
+ * The server application without its web layer, on an in-memory H2 database seeded by {@link DatasetSeeder} once per
+ * trial. The dataset size is set with {@code -p items=...} and {@code -p itemsPerOwner=...}. Logging is turned down
+ * to warnings: the services log every call, and writing that to the console would be most of what gets measured.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkServer {
+    @Param("1000")
+    public int items;
+    @Param("20")
+    public int itemsPerOwner;
+    private ConfigurableApplicationContext context;
+    private Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--shareit.virtual-threads.pinned-monitor.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        dataset = new DatasetSeeder(context).seed(items, itemsPerOwner);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+}
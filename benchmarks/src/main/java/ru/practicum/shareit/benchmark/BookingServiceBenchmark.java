@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.ReturnBookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The owner's booking list for every state: the first page, as the paged endpoint returns it, and the whole list, as
+ * the unpaged endpoint streams it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public BookingState state;
+    private BookingService bookingService;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkServer server) {
+        bookingService = server.getBean(BookingService.class);
+        ownerId = server.getDataset().getOwnerId();
+    }
+
+    @Benchmark
+    public List<ReturnBookingDto> findAllByOwnerId() {
+        return bookingService.findAllByOwnerId(ownerId, state, 0, 20);
+    }
+
+    @Benchmark
+    public void streamAllByOwnerId(Blackhole blackhole) {
+        bookingService.streamAllByOwnerId(ownerId, state, blackhole::consume);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and reports, for every benchmark and parameter set, how
+ * much its score has changed. A change for the worse is a regression when it is larger than the threshold (10% unless
+ * given) and the two scores lie further apart than their error margins, so that noise alone does not fail a build.
+ * Exits with 1 when there is a regression.
+ * <pre>
+ * java -cp benchmarks.jar ru.practicum.shareit.benchmark.CompareResults base.json new.json [threshold-percent]
+ * </pre>
+ */
+public class CompareResults {
+    private static final double DEFAULT_THRESHOLD = 10;
+    private final double threshold;
+
+    public CompareResults(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: CompareResults <base.json> <new.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        ObjectMapper objectMapper = new ObjectMapper();
+        int regressions = new CompareResults(threshold)
+                .compare(objectMapper.readTree(new File(args[0])), objectMapper.readTree(new File(args[1])), System.out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Prints the comparison of the {@code base} and {@code current} results and returns the number of regressions.
+     */
+    public int compare(JsonNode base, JsonNode current, PrintStream out) {
+        Map<String, Score> baseScores = scores(base);
+        Map<String, Score> currentScores = scores(current);
+        int regressions = 0;
+
+        out.printf("%-100s %15s %15s %9s%n", "Benchmark", "Base", "New", "Change");
+        for (Map.Entry<String, Score> entry : currentScores.entrySet()) {
+            Score now = entry.getValue();
+            Score was = baseScores.get(entry.getKey());
+            if (was == null) {
+                out.printf("%-100s %15s %15s %9s%n", entry.getKey(), "-", now, "new");
+                continue;
+            }
+            double change = (now.value - was.value) / was.value * 100;
+            double worse = now.higherIsBetter ? -change : change;
+            String verdict = "";
+            if (Math.abs(change) > threshold && Math.abs(now.value - was.value) > now.error + was.error) {
+                verdict = worse > 0 ? "REGRESSION" : "improved";
+                regressions += worse > 0 ? 1 : 0;
+            }
+            out.printf("%-100s %15s %15s %+8.1f%% %s%n", entry.getKey(), was, now, change, verdict);
+        }
+        baseScores.keySet().stream()
+                .filter(key -> !currentScores.containsKey(key))
+                .forEach(key -> out.printf("%-100s %15s %15s %9s%n", key, baseScores.get(key), "-", "removed"));
+
+        out.printf("%d regression(s) above %.1f%%.%n", regressions, threshold);
+        return regressions;
+    }
+
+    private static Map<String, Score> scores(JsonNode results) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(key(result), new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText(), "thrpt".equals(result.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        String benchmark = result.path("benchmark").asText();
+        benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        if (params.isEmpty()) {
+            return benchmark;
+        }
+        return benchmark + params.entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining(", ", " (", ")"));
+    }
+
+    private static final class Score {
+        private final double value;
+        private final double error;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Score(double value, double error, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What {@link DatasetSeeder} has put into the database: the sizes of the tables and the users the benchmarks query as.
+ */
+@Getter
+@AllArgsConstructor
+public class Dataset {
+    /**
+     * An owner with the configured number of items, each of them booked by {@link #bookerId}.
+     */
+    private final long ownerId;
+    private final long bookerId;
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills an empty database with the same dataset on every run: {@code items} items, {@code itemsPerOwner} per owner,
+ * each booked by the next owner once in every state (past, current, future, waiting and rejected), with a comment on
+ * the past booking. Names and descriptions are made of {@link #WORDS}, so searching for one of them matches about
+ * one item in {@code WORDS.length}.
+ * <p>
+ * Rows are inserted in batches of {@code BATCH_SIZE} items, each batch in its own transaction.
+ */
+public class DatasetSeeder {
+    public static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bicycle", "camera", "projector"};
+    public static final int BOOKINGS_PER_ITEM = 5;
+    private static final int BATCH_SIZE = 1000;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Random random = new Random(42);
+
+    public DatasetSeeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.itemRepository = context.getBean(ItemRepository.class);
+        this.bookingRepository = context.getBean(BookingRepository.class);
+        this.commentRepository = context.getBean(CommentRepository.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    public Dataset seed(int items, int itemsPerOwner) {
+        if (items < 1 || itemsPerOwner < 1) {
+            throw new IllegalArgumentException("The dataset needs at least one item and one item per owner.");
+        }
+        int owners = (items + itemsPerOwner - 1) / itemsPerOwner;
+        List<User> users = transactionTemplate.execute(status -> userRepository.saveAll(users(Math.max(owners, 2))));
+        LocalDateTime now = LocalDateTime.now();
+
+        int comments = 0;
+        for (int first = 0; first < items; first += BATCH_SIZE) {
+            int from = first;
+            int to = Math.min(items, first + BATCH_SIZE);
+            comments += transactionTemplate.execute(status -> seedItems(users, itemsPerOwner, from, to, now));
+        }
+        return new Dataset(users.get(0).getId(), users.get(1).getId(), users.size(), items,
+                items * BOOKINGS_PER_ITEM, comments);
+    }
+
+    private int seedItems(List<User> users, int itemsPerOwner, int from, int to, LocalDateTime now) {
+        List<Item> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            items.add(Item.builder()
+                    .name(word() + " " + i)
+                    .description(word() + " in good condition, " + word() + " included")
+                    .available(i % 10 != 9)
+                    .owner(users.get(i / itemsPerOwner))
+                    .build());
+        }
+        itemRepository.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>(items.size() * BOOKINGS_PER_ITEM);
+        List<Comment> comments = new ArrayList<>(items.size());
+        for (int i = from; i < to; i++) {
+            Item item = items.get(i - from);
+            User booker = users.get((i / itemsPerOwner + 1) % users.size());
+            bookings.add(booking(item, booker, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED));
+            bookings.add(booking(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED));
+            bookings.add(booking(item, booker, now.plusDays(10), now.plusDays(11), BookingStatus.APPROVED));
+            bookings.add(booking(item, booker, now.plusDays(20), now.plusDays(21), BookingStatus.WAITING));
+            bookings.add(booking(item, booker, now.plusDays(30), now.plusDays(31), BookingStatus.REJECTED));
+            comments.add(Comment.builder()
+                    .text("The " + word() + " was fine")
+                    .item(item)
+                    .author(booker)
+                    .created(now.minusDays(8))
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        return comments.size();
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder().name("User " + i).email("user" + i + "@benchmark.ru").build());
+        }
+        return users;
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder().item(item).booker(booker).start(start).end(end).status(status).build();
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
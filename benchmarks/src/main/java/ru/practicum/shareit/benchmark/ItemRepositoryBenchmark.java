@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text search query behind item search, for a word about one item in {@code DatasetSeeder.WORDS.length} contains
+ * and for a text that matches nothing, which has to scan every item just the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRepositoryBenchmark {
+    @Param({"drill", "no such item"})
+    public String text;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkServer server) {
+        itemRepository = server.getBean(ItemRepository.class);
+    }
+
+    @Benchmark
+    public Collection<Item> findAllByNameOrDescription() {
+        return itemRepository.findAllByNameOrDescription(text);
+    }
+
+    @Benchmark
+    public Page<Item> findAllByNameOrDescriptionPage() {
+        return itemRepository.findAllByNameOrDescription(text, PageRequest.of(0, 20));
+    }
+}
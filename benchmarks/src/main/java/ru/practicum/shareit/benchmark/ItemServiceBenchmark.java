@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.dto.ReturnItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The owner's item list with the last and next booking and the comments of every item: the first page, the whole
+ * list loaded at once, and the whole list streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkServer server) {
+        itemService = server.getBean(ItemService.class);
+        ownerId = server.getDataset().getOwnerId();
+    }
+
+    @Benchmark
+    public List<ReturnItemDto> findByOwnerPage() {
+        return itemService.findByOwner(ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public List<ReturnItemDto> findByOwner() {
+        return itemService.findByOwner(ownerId, null, null);
+    }
+
+    @Benchmark
+    public void streamByOwner(Blackhole blackhole) {
+        itemService.streamByOwner(ownerId, blackhole::consume);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.ReturnBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ReturnItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversions done for every row of every list response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private Booking booking;
+    private Item item;
+    private BookingDtoForItem lastBooking;
+    private BookingDtoForItem nextBooking;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().id(1L).name("Owner").email("owner@benchmark.ru").build();
+        User booker = User.builder().id(2L).name("Booker").email("booker@benchmark.ru").build();
+        item = Item.builder()
+                .id(1L)
+                .name("Drill")
+                .description("Drill in good condition")
+                .available(true)
+                .owner(owner)
+                .build();
+        booking = Booking.builder()
+                .id(1L)
+                .start(now.minusDays(1))
+                .end(now.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        lastBooking = bookingMapper.toBookingDtoForItem(booking);
+        nextBooking = bookingMapper.toBookingDtoForItem(booking);
+        comments = List.of(CommentDto.builder().id(1L).text("Fine").authorName("Booker").created(now).build());
+    }
+
+    @Benchmark
+    public ReturnBookingDto toReturnBookingDto() {
+        return bookingMapper.toReturnBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDtoForItem toBookingDtoForItem() {
+        return bookingMapper.toBookingDtoForItem(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ReturnItemDto toReturnItemDto() {
+        return itemMapper.toReturnItemDto(item, lastBooking, nextBooking, comments);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkServerTest {
+    private static final BenchmarkServer server = new BenchmarkServer();
+
+    @BeforeAll
+    static void setUp() {
+        server.items = 50;
+        server.itemsPerOwner = 10;
+        server.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void start_whenDatasetSeeded_thenTablesHaveConfiguredSize() {
+        Dataset dataset = server.getDataset();
+
+        assertEquals(5, dataset.getUsers());
+        assertEquals(50, server.getBean(ItemRepository.class).count());
+        assertEquals(50 * DatasetSeeder.BOOKINGS_PER_ITEM, server.getBean(BookingRepository.class).count());
+        assertEquals(50, server.getBean(CommentRepository.class).count());
+        assertEquals(5, server.getBean(UserRepository.class).count());
+        assertNotEquals(dataset.getOwnerId(), dataset.getBookerId());
+    }
+
+    @Test
+    void bookingServiceBenchmark_whenRun_thenFindOwnerBookingsInEveryState() {
+        BookingServiceBenchmark benchmark = new BookingServiceBenchmark();
+        benchmark.setUp(server);
+
+        benchmark.state = BookingState.ALL;
+        assertEquals(20, benchmark.findAllByOwnerId().size());
+        benchmark.state = BookingState.FUTURE;
+        assertEquals(20, benchmark.findAllByOwnerId().size());
+        benchmark.state = BookingState.CURRENT;
+        assertEquals(10, benchmark.findAllByOwnerId().size());
+        benchmark.state = BookingState.WAITING;
+        assertEquals(10, benchmark.findAllByOwnerId().size());
+        benchmark.streamAllByOwnerId(blackhole());
+    }
+
+    @Test
+    void itemServiceBenchmark_whenRun_thenFindOwnerItems() {
+        ItemServiceBenchmark benchmark = new ItemServiceBenchmark();
+        benchmark.setUp(server);
+
+        assertEquals(10, benchmark.findByOwner().size());
+        assertEquals(10, benchmark.findByOwnerPage().size());
+        assertNotNull(benchmark.findByOwner().get(0).getLastBooking());
+        benchmark.streamByOwner(blackhole());
+    }
+
+    @Test
+    void itemRepositoryBenchmark_whenRun_thenSearchItems() {
+        ItemRepositoryBenchmark benchmark = new ItemRepositoryBenchmark();
+        benchmark.setUp(server);
+
+        benchmark.text = "drill";
+        assertFalse(benchmark.findAllByNameOrDescription().isEmpty());
+        benchmark.text = "no such item";
+        assertTrue(benchmark.findAllByNameOrDescriptionPage().isEmpty());
+    }
+
+    private static Blackhole blackhole() {
+        return new Blackhole("Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.");
+    }
+}
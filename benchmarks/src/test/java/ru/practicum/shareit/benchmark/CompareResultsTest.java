@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompareResultsTest {
+    private final CompareResults compareResults = new CompareResults(10);
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void compare_whenAverageTimeGrowsBeyondThresholdAndError_thenReportRegression() {
+        int regressions = compare(result("avgt", 100, 2), result("avgt", 130, 2));
+
+        assertEquals(1, regressions);
+        assertTrue(output().contains("REGRESSION"));
+        assertTrue(output().contains("BookingServiceBenchmark.findAllByOwnerId (items=1000, state=ALL)"));
+    }
+
+    @Test
+    void compare_whenChangeIsWithinErrorMargins_thenReportNoRegression() {
+        assertEquals(0, compare(result("avgt", 100, 20), result("avgt", 130, 20)));
+    }
+
+    @Test
+    void compare_whenChangeIsBelowThreshold_thenReportNoRegression() {
+        assertEquals(0, compare(result("avgt", 100, 0), result("avgt", 105, 0)));
+    }
+
+    @Test
+    void compare_whenThroughputDrops_thenReportRegression() {
+        assertEquals(1, compare(result("thrpt", 1000, 10), result("thrpt", 500, 10)));
+    }
+
+    @Test
+    void compare_whenAverageTimeDrops_thenReportImprovement() {
+        int regressions = compare(result("avgt", 100, 1), result("avgt", 50, 1));
+
+        assertEquals(0, regressions);
+        assertTrue(output().contains("improved"));
+    }
+
+    @Test
+    void compare_whenBenchmarkMissingFromOneSide_thenListItWithoutComparing() {
+        int regressions = compare(json("[]"), result("avgt", 100, 1));
+
+        assertEquals(0, regressions);
+        assertTrue(output().contains("new"));
+    }
+
+    private int compare(JsonNode base, JsonNode current) {
+        return compareResults.compare(base, current, new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static JsonNode result(String mode, double score, double error) {
+        return json(String.format("[{\"benchmark\":\"ru.practicum.shareit.benchmark.BookingServiceBenchmark.findAllByOwnerId\","
+                + "\"mode\":\"%s\",\"params\":{\"state\":\"ALL\",\"items\":\"1000\"},"
+                + "\"primaryMetric\":{\"score\":%s,\"scoreError\":%s,\"scoreUnit\":\"us/op\"}}]", mode, score, error));
+    }
+
+    @SneakyThrows
+    private static JsonNode json(String json) {
+        return new ObjectMapper().readTree(json);
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.classic.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -19,11 +24,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient shareItServerHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
                         .build()
         );
     }
@@ -40,11 +46,16 @@ public class BookingClient extends BaseClient {
         return patch("/{bookingId}?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> statusUpdateAll(long userId, BookingStatusUpdateDto statusUpdateDto) {
+        return patch("/status", userId, statusUpdateDto);
+    }
+
     public ResponseEntity<Object> findById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllByBookerId(long bookerId, BookingState state, Integer from, Integer size) {
+    public void findAllByBookerId(long bookerId, BookingState state, Integer from, Integer size, String cursor, String fields,
+                                  HttpServletRequest request, HttpServletResponse response) {
         Map<String, Object> parameters = new HashMap<>();
         StringBuilder url = new StringBuilder("");
 
@@ -66,11 +77,22 @@ public class BookingClient extends BaseClient {
             url.append("&size={size}");
             parameters.put("size", size);
         }
-        return get(url.toString(), bookerId, parameters);
+
+        if (cursor != null) {
+            url.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        }
+
+        if (fields != null) {
+            url.append("&fields={fields}");
+            parameters.put("fields", fields);
+        }
+        relay(HttpMethod.GET, url.toString(), bookerId, parameters, request, response);
     }
 
 
-    public ResponseEntity<Object> findAllByOwnerId(long ownerId, BookingState state, Integer from, Integer size) {
+    public void findAllByOwnerId(long ownerId, BookingState state, Integer from, Integer size, String cursor, String fields,
+                                 HttpServletRequest request, HttpServletResponse response) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("state", state.name());
         if (from != null) {
@@ -79,15 +101,27 @@ public class BookingClient extends BaseClient {
         if (size != null) {
             parameters.put("size", size);
         }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        if (fields != null) {
+            parameters.put("fields", fields);
+        }
 
-        StringBuilder url = new StringBuilder("/?state={state}");
+        StringBuilder url = new StringBuilder("/owner?state={state}");
         if (from != null) {
             url.append("&from={from}");
         }
         if (size != null) {
             url.append("&size={size}");
         }
+        if (cursor != null) {
+            url.append("&cursor={cursor}");
+        }
+        if (fields != null) {
+            url.append("&fields={fields}");
+        }
 
-        return get(url.toString(), ownerId, parameters);
+        relay(HttpMethod.GET, url.toString(), ownerId, parameters, request, response);
     }
 }
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -27,6 +30,12 @@ public class BookingController {
         return bookingClient.statusUpdate(userId, bookingId, approved);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<Object> statusUpdateAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @Valid @RequestBody BookingStatusUpdateDto statusUpdateDto) {
+        return bookingClient.statusUpdateAll(userId, statusUpdateDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> findById(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId) {
@@ -34,18 +43,26 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                                    @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                    @RequestParam(required = false) Integer from,
-                                                    @RequestParam(required = false) Integer size) {
-        return bookingClient.findAllByBookerId(bookerId, state, from, size);
+    public void findAllByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                  @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                  @RequestParam(required = false) Integer from,
+                                  @RequestParam(required = false) Integer size,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) String fields,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) {
+        bookingClient.findAllByBookerId(bookerId, state, from, size, cursor, fields, request, response);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                 @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                 @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
-        return bookingClient.findAllByOwnerId(ownerId, state, from, size);
+    public void findAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                               @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                               @RequestParam(required = false) Integer from,
+                               @RequestParam(required = false) Integer size,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(required = false) String fields,
+                               HttpServletRequest request,
+                               HttpServletResponse response) {
+        bookingClient.findAllByOwnerId(ownerId, state, from, size, cursor, fields, request, response);
     }
 }
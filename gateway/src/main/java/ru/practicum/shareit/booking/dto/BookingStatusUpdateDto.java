@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+public class BookingStatusUpdateDto {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull Long> bookingIds;
+    @NotNull
+    private Boolean approved;
+}
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.client;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final List<String> NOT_RELAYED_HEADERS = List.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive", HttpHeaders.CONTENT_LENGTH, HttpHeaders.UPGRADE, HttpHeaders.TRAILER);
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -79,18 +93,74 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Streams the body of {@code request} to the server and the server response back into {@code response}, so
+     * neither is held in memory whole. Meant for payloads of any size, such as imports or long listings: the
+     * gateway does not look into the body, the server validates it. The incoming content type and accepted media
+     * types are passed on as they are; the response is flushed as server data arrives.
+     */
+    protected void relay(HttpMethod method, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                         HttpServletRequest request, HttpServletResponse response) {
+        RequestCallback requestCallback = serverRequest -> {
+            HttpHeaders headers = serverRequest.getHeaders();
+            if (userId != null) {
+                headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            headers.set(HttpHeaders.ACCEPT, request.getHeader(HttpHeaders.ACCEPT) != null
+                    ? request.getHeader(HttpHeaders.ACCEPT) : MediaType.APPLICATION_JSON_VALUE);
+            if (request.getContentType() == null) {
+                return;
+            }
+            headers.set(HttpHeaders.CONTENT_TYPE, request.getContentType());
+            InputStream body = request.getInputStream();
+            if (serverRequest instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body::transferTo);
+            } else {
+                body.transferTo(serverRequest.getBody());
+            }
+        };
+        ResponseExtractor<Void> responseExtractor = serverResponse -> {
+            copy(serverResponse.getStatusCode(), serverResponse.getHeaders(), serverResponse.getBody(), response);
+            return null;
+        };
+
+        try {
+            rest.execute(path, method, requestCallback, responseExtractor, parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            try {
+                copy(e.getStatusCode(), e.getResponseHeaders(), new ByteArrayInputStream(e.getResponseBodyAsByteArray()),
+                        response);
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+    }
+
+    private static void copy(HttpStatusCode status, @Nullable HttpHeaders headers, InputStream body,
+                             HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        passThroughHeaders(headers).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return new ResponseEntity<>(e.getResponseBodyAsByteArray(), passThroughHeaders(e.getResponseHeaders()), e.getStatusCode());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -105,17 +175,20 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Relays the server response as is: the body stays the raw bytes the server wrote, so it is never parsed
+     * into objects and serialized again. Only headers that describe the gateway-to-server connection are dropped.
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return new ResponseEntity<>(response.getBody(), passThroughHeaders(response.getHeaders()), response.getStatusCode());
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static HttpHeaders passThroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            headers.putAll(serverHeaders);
+            NOT_RELAYED_HEADERS.forEach(headers::remove);
         }
-
-        return responseBuilder.build();
+        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.cache.CacheConfig;
+import org.apache.hc.client5.http.impl.cache.CachingHttpClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * The HTTP client shared by all gateway clients for calls to the ShareIt server.
+ * <p>
+ * Connections come from one pool whose size and timeouts are configured under {@code shareit-server.pool}.
+ * Idle connections are closed in the background, and pool usage is published as the
+ * {@code httpcomponents.httpclient.pool.*} meters tagged {@code httpclient=shareit-server}.
+ * <p>
+ * When caching is enabled, GET responses are kept in a bounded in-memory cache that follows the server's
+ * {@code Cache-Control}, {@code ETag} and {@code Vary} headers: entries are stored per URI and per
+ * {@code X-Sharer-User-Id}, served without a round trip while fresh, and revalidated with
+ * {@code If-None-Match} once stale. How long an entry stays fresh is decided by the server.
+ */
+@Slf4j
+@Configuration
+public class ServerHttpClientConfig {
+    static final String CLIENT_NAME = "shareit-server";
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:200}") int maxPerRoute,
+            @Value("${shareit-server.pool.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.pool.read-timeout:30s}") Duration readTimeout) {
+        log.info("shareItServerConnectionManager(): Pool of {} connections, {} per route.", maxTotal, maxPerRoute);
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItServerConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(shareItServerConnectionManager, CLIENT_NAME);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager shareItServerConnectionManager,
+                                                      @Value("${shareit-server.pool.lease-timeout:5s}") Duration leaseTimeout,
+                                                      @Value("${shareit-server.pool.idle-timeout:30s}") Duration idleTimeout,
+                                                      @Value("${shareit-server.cache.enabled:true}") boolean cacheEnabled,
+                                                      @Value("${shareit-server.cache.max-entries:10000}") int maxEntries,
+                                                      @Value("${shareit-server.cache.max-object-size:65536}") long maxObjectSize) {
+        HttpClientBuilder builder;
+        if (cacheEnabled) {
+            log.info("shareItServerHttpClient(): Response cache enabled for up to {} entries of {} bytes.", maxEntries, maxObjectSize);
+            builder = CachingHttpClients.custom()
+                    .setCacheConfig(CacheConfig.custom()
+                            .setMaxCacheEntries(maxEntries)
+                            .setMaxObjectSize(maxObjectSize)
+                            .setSharedCache(false)
+                            .build());
+        } else {
+            log.info("shareItServerHttpClient(): Response cache disabled.");
+            builder = HttpClients.custom();
+        }
+
+        return builder
+                .setConnectionManager(shareItServerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeout.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                .useSystemProperties()
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.classic.HttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -10,6 +14,7 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,11 +22,12 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient shareItServerHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
                         .build()
         );
     }
@@ -30,6 +36,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public void importItems(long userId, HttpServletRequest request, HttpServletResponse response) {
+        relay(HttpMethod.POST, "/bulk", userId, null, request, response);
+    }
+
     public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -38,7 +48,7 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findByOwner(long userId, Integer from, Integer size) {
+    public void findByOwner(long userId, Integer from, Integer size, HttpServletRequest request, HttpServletResponse response) {
         Map<String, Object> parameters = new HashMap<>();
         if (from != null) {
             parameters.put("from", from);
@@ -59,7 +69,7 @@ public class ItemClient extends BaseClient {
             }
         }
 
-        return get(url.toString(), userId, parameters);
+        relay(HttpMethod.GET, url.toString(), userId, parameters, request, response);
     }
 
 
@@ -90,4 +100,19 @@ public class ItemClient extends BaseClient {
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> findAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder url = new StringBuilder("/" + itemId + "/availability");
+        if (from != null) {
+            parameters.put("from", from);
+            url.append("?from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            url.append(from != null ? "&to={to}" : "?to={to}");
+        }
+
+        return get(url.toString(), userId, parameters);
+    }
 }
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -20,6 +25,13 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) {
+        itemClient.importItems(userId, request, response);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId,
                           @PathVariable long itemId,
@@ -34,10 +46,12 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(required = false) Integer from,
-                                              @RequestParam(required = false) Integer size) {
-        return itemClient.findByOwner(userId, from, size);
+    public void findAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                               @RequestParam(required = false) Integer from,
+                               @RequestParam(required = false) Integer size,
+                               HttpServletRequest request,
+                               HttpServletResponse response) {
+        itemClient.findByOwner(userId, from, size, request, response);
     }
 
     @GetMapping("/search")
@@ -55,4 +69,12 @@ public class ItemController {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long itemId,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.findAvailability(userId, itemId, from, to);
+    }
+
 }
\ No newline at end of file
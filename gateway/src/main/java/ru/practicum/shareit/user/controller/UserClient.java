@@ -1,7 +1,11 @@
 package ru.practicum.shareit.user.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.classic.HttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -10,15 +14,18 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient shareItServerHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
                         .build()
         );
     }
@@ -27,6 +34,10 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
+    public ResponseEntity<Object> createAll(List<UserDto> userDtos) {
+        return post("/bulk", userDtos);
+    }
+
     public ResponseEntity<Object> update(long userId, UpdatedUserDto userDto) {
         return patch("/" + userId, userDto);
     }
@@ -35,8 +46,8 @@ public class UserClient extends BaseClient {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> findAll() {
-        return get("");
+    public void findAll(HttpServletRequest request, HttpServletResponse response) {
+        relay(HttpMethod.GET, "", null, null, request, response);
     }
 
     public ResponseEntity<Object> deleteById(long userId) {
@@ -7,7 +7,12 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequestMapping("/users")
@@ -20,6 +25,11 @@ public class UserController {
         return userClient.create(userDto);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<Object> createAll(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid UserDto> userDtos) {
+        return userClient.createAll(userDtos);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> update(@PathVariable long userId, @Valid @RequestBody UpdatedUserDto userDto) {
         return userClient.update(userId, userDto);
@@ -31,8 +41,8 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
-        return userClient.findAll();
+    public void findAll(HttpServletRequest request, HttpServletResponse response) {
+        userClient.findAll(request, response);
     }
 
     @DeleteMapping("/{userId}")
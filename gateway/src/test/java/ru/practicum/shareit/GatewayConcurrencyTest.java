@@ -0,0 +1,106 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the gateway with only four Tomcat worker threads in front of a server that holds every request until all
+ * {@value #REQUESTS} have arrived (or {@value #SERVER_HOLD_SECONDS} s pass). On platform threads at most four requests
+ * can be waiting on the server at once; on virtual threads they all are.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=4",
+        "server.tomcat.threads.min-spare=4",
+        "shareit-server.cache.enabled=false"
+})
+class GatewayConcurrencyTest {
+    private static final int REQUESTS = 40;
+    private static final long SERVER_HOLD_SECONDS = 2;
+    private static final CountDownLatch ARRIVED = new CountDownLatch(REQUESTS);
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK_IN_FLIGHT = new AtomicInteger();
+    private static final HttpServer SERVER = startSlowServer();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.tomcat.threads.max}")
+    private int maxThreads;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void findById_whenManyRequestsWaitOnServer_thenHandleThemConcurrently() {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        responses.forEach(response -> {
+            assertEquals(200, response.join().statusCode());
+            assertEquals("{\"id\":1}", response.join().body());
+        });
+
+        assertTrue(PEAK_IN_FLIGHT.get() > maxThreads,
+                "At most " + PEAK_IN_FLIGHT.get() + " requests reached the server at once, "
+                        + "no more than the " + maxThreads + " Tomcat threads");
+    }
+
+    @SneakyThrows
+    private static HttpServer startSlowServer() {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users", exchange -> {
+            PEAK_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+            ARRIVED.countDown();
+            try {
+                ARRIVED.await(SERVER_HOLD_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingClientTest {
+    private HttpServer server;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-Request-Path", exchange.getRequestURI().getPath());
+            exchange.getResponseHeaders().set("X-Request-Query", exchange.getRequestURI().getQuery());
+            exchange.getResponseHeaders().set("X-Request-User-Id", exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("[]".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.start();
+        bookingClient = new BookingClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(),
+                HttpClients.createDefault());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void findAllByOwnerId_whenInvoked_thenForwardToOwnerBookings() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        bookingClient.findAllByOwnerId(1L, BookingState.ALL, 0, 10, null, null,
+                new MockHttpServletRequest("GET", "/bookings/owner"), response);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("/bookings/owner", response.getHeader("X-Request-Path"));
+        assertEquals("state=ALL&from=0&size=10", response.getHeader("X-Request-Query"));
+        assertEquals("1", response.getHeader("X-Request-User-Id"));
+    }
+
+    @Test
+    void findAllByBookerId_whenInvoked_thenForwardToBookerBookings() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        bookingClient.findAllByBookerId(1L, BookingState.ALL, null, null, null, null,
+                new MockHttpServletRequest("GET", "/bookings"), response);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("/bookings", response.getHeader("X-Request-Path"));
+        assertEquals("state=ALL", response.getHeader("X-Request-Query"));
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.item.controller.ItemClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTest {
+    private static final String ITEM_JSON = "{\"id\": 1,  \"name\":\"Дрель\"}";
+    private static final String NOT_FOUND_JSON = "{\"error\":\"Item with id = 2 not found.\"}";
+    private static final String USER_NOT_FOUND_JSON = "{\"error\":\"User with id = 2 not found\"}";
+    private static final String ITEMS_NDJSON = "{\"name\":\"Дрель\"}\n{\"name\":\"Пила\"}\n";
+
+    private HttpServer server;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/bulk", exchange -> {
+            boolean found = "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            byte[] body = found ? exchange.getRequestBody().readAllBytes() : USER_NOT_FOUND_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", found ? "application/x-ndjson" : "application/json");
+            exchange.getResponseHeaders().set("X-Request-Content-Type", exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.sendResponseHeaders(found ? 200 : 404, 0);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/items", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/items")) {
+                exchange.getResponseHeaders().set("Content-Type", exchange.getRequestHeaders().getFirst("Accept"));
+                exchange.getResponseHeaders().set("X-Request-Query", exchange.getRequestURI().getQuery());
+                exchange.sendResponseHeaders(200, 0);
+                exchange.getResponseBody().write(ITEMS_NDJSON.getBytes(StandardCharsets.UTF_8));
+                exchange.close();
+                return;
+            }
+            boolean found = exchange.getRequestURI().getPath().endsWith("/1");
+            byte[] body = (found ? ITEM_JSON : NOT_FOUND_JSON).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("ETag", "\"item\"");
+            exchange.sendResponseHeaders(found ? 200 : 404, 0);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        itemClient = new ItemClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(),
+                HttpClients.createDefault());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void findById_whenServerResponds_thenRelayBodyBytesAndHeadersUnchanged() {
+        ResponseEntity<Object> response = itemClient.findById(1L, 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(ITEM_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"item\"", response.getHeaders().getETag());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void findById_whenServerRespondsWithError_thenRelayStatusBodyAndContentType() {
+        ResponseEntity<Object> response = itemClient.findById(1L, 2L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(NOT_FOUND_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenServerResponds_thenStreamBodyBothWays() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items/bulk");
+        request.setContentType("application/x-ndjson");
+        request.setContent(ITEMS_NDJSON.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        itemClient.importItems(1L, request, response);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals("application/x-ndjson", response.getHeader("X-Request-Content-Type"));
+        assertArrayEquals(ITEMS_NDJSON.getBytes(StandardCharsets.UTF_8), response.getContentAsByteArray());
+        assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenServerRespondsWithError_thenRelayStatusAndBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items/bulk");
+        request.setContentType("application/json");
+        request.setContent("[]".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        itemClient.importItems(2L, request, response);
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertArrayEquals(USER_NOT_FOUND_JSON.getBytes(StandardCharsets.UTF_8), response.getContentAsByteArray());
+    }
+
+    @Test
+    @SneakyThrows
+    void findByOwner_whenNdjsonAccepted_thenRelayAcceptAndStreamBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-ndjson");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        itemClient.findByOwner(1L, 0, 20, request, response);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals("from=0&size=20", response.getHeader("X-Request-Query"));
+        assertArrayEquals(ITEMS_NDJSON.getBytes(StandardCharsets.UTF_8), response.getContentAsByteArray());
+    }
+}
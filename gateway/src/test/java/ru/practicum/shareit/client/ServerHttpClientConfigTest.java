@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.controller.ItemClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServerHttpClientConfigTest {
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final ServerHttpClientConfig config = new ServerHttpClientConfig();
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private String cacheControl;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void findById_whenResponseIsFresh_thenServeFromCachePerUser() {
+        cacheControl = "max-age=60, private";
+        ItemClient itemClient = itemClient(true);
+
+        ResponseEntity<Object> first = itemClient.findById(1L, 1L);
+        ResponseEntity<Object> second = itemClient.findById(1L, 1L);
+        itemClient.findById(2L, 1L);
+
+        assertEquals("{\"id\":1,\"viewer\":1}", new String((byte[]) first.getBody(), StandardCharsets.UTF_8));
+        assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+        assertEquals(2, served.get());
+        assertEquals(0, notModified.get());
+    }
+
+    @Test
+    void findById_whenResponseMustBeRevalidated_thenSendIfNoneMatch() {
+        cacheControl = "max-age=0, must-revalidate, private";
+        ItemClient itemClient = itemClient(true);
+
+        itemClient.findById(1L, 1L);
+        ResponseEntity<Object> revalidated = itemClient.findById(1L, 1L);
+
+        assertEquals("{\"id\":1,\"viewer\":1}", new String((byte[]) revalidated.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, served.get());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    void findById_whenCacheDisabled_thenAlwaysCallServer() {
+        cacheControl = "max-age=60, private";
+        ItemClient itemClient = itemClient(false);
+
+        itemClient.findById(1L, 1L);
+        itemClient.findById(1L, 1L);
+
+        assertEquals(2, served.get());
+    }
+
+    @Test
+    void findById_whenCalledRepeatedly_thenReuseOnePooledConnection() {
+        cacheControl = "max-age=0, must-revalidate, private";
+        ItemClient itemClient = itemClient(false);
+
+        itemClient.findById(1L, 1L);
+        itemClient.findById(2L, 1L);
+        itemClient.findById(3L, 1L);
+
+        assertEquals(3, served.get());
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    void connectionPoolMetrics_whenConnectionReleased_thenReportAvailableConnection() {
+        cacheControl = "max-age=0, must-revalidate, private";
+        ItemClient itemClient = itemClient(false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.shareItServerConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        itemClient.findById(1L, 1L);
+
+        assertEquals(1.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", ServerHttpClientConfig.CLIENT_NAME, "state", "available").gauge().value());
+        assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", ServerHttpClientConfig.CLIENT_NAME, "state", "leased").gauge().value());
+        assertEquals(4.0, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+
+    private ItemClient itemClient(boolean cacheEnabled) {
+        connectionManager = config.shareItServerConnectionManager(4, 4, Duration.ofSeconds(1), Duration.ofSeconds(5));
+        httpClient = config.shareItServerHttpClient(connectionManager, Duration.ofSeconds(1), Duration.ofSeconds(30),
+                cacheEnabled, 100, 1024);
+        return new ItemClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(), httpClient);
+    }
+
+    @SneakyThrows
+    private void handle(HttpExchange exchange) {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        String viewer = exchange.getRequestHeaders().getFirst("X-Sharer-User-Id");
+        String etag = "\"item-1-" + viewer + "\"";
+        exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        exchange.getResponseHeaders().set("Vary", "X-Sharer-User-Id");
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        served.incrementAndGet();
+        byte[] body = ("{\"id\":1,\"viewer\":" + viewer + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
@@ -10,10 +10,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingClient;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -207,7 +209,7 @@ class BookingValidationTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).findAllByBookerId(anyLong(), any(), any(), any());
+        verify(bookingClient, never()).findAllByBookerId(anyLong(), any(), any(), any(), any(), any(), any(), any());
     }
 
     @SneakyThrows
@@ -217,6 +219,62 @@ class BookingValidationTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).findAllByOwnerId(anyLong(), any(), any(), any());
+        verify(bookingClient, never()).findAllByOwnerId(anyLong(), any(), any(), any(), any(), any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void statusUpdateAll_whenBookingIdsAreEmpty_thenReturnBadRequest() {
+        BookingStatusUpdateDto statusUpdateDto = BookingStatusUpdateDto.builder()
+                .bookingIds(List.of())
+                .approved(true)
+                .build();
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(statusUpdateDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).statusUpdateAll(anyLong(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void statusUpdateAll_whenApprovedIsNull_thenReturnBadRequest() {
+        BookingStatusUpdateDto statusUpdateDto = BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(bookingId))
+                .build();
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(statusUpdateDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).statusUpdateAll(anyLong(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void statusUpdateAll_whenValid_thenCallClient() {
+        BookingStatusUpdateDto statusUpdateDto = BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(bookingId))
+                .approved(true)
+                .build();
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(statusUpdateDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).statusUpdateAll(userId, statusUpdateDto);
+    }
+}
@@ -13,9 +13,11 @@ import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -146,6 +148,30 @@ class ItemValidationTest {
         verify(itemClient, never()).create(anyLong(), any());
     }
 
+    @SneakyThrows
+    @Test
+    void importItems_whenNdjson_thenRelayWithoutReadingBody() {
+        mvc.perform(post("/items/bulk")
+                        .content("{\"name\":\"\"}\nnot json\n")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).importItems(eq(userId), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenContentTypeNotJson_thenReturnUnsupportedMediaType() {
+        mvc.perform(post("/items/bulk")
+                        .content("name;description")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(itemClient, never()).importItems(anyLong(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     void create_whenWithoutXSharerUserId_thenReturnBadRequest() {
@@ -187,7 +213,7 @@ class ItemValidationTest {
         mvc.perform(get("/items", itemId))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).findByOwner(anyLong(), any(), any());
+        verify(itemClient, never()).findByOwner(anyLong(), any(), any(), any(), any());
     }
 
     @SneakyThrows
@@ -271,4 +297,28 @@ class ItemValidationTest {
 
         verify(itemClient, never()).createComment(anyLong(), anyLong(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findAvailability_whenPeriodIsValid_thenCallClient() {
+        mvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).findAvailability(eq(userId), eq(itemId),
+                eq(LocalDateTime.of(2030, 1, 1, 10, 0)), eq(LocalDateTime.of(2030, 1, 5, 10, 0)));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAvailability_whenFromIsNotDateTime_thenReturnBadRequest() {
+        mvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", "tomorrow")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).findAvailability(anyLong(), anyLong(), any(), any());
+    }
+}
@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -51,6 +52,24 @@ class UserValidationTest {
         verify(userClient, never()).create(userWithoutEmailDto);
     }
 
+    @SneakyThrows
+    @Test
+    void createAll_whenOneUserEmailNotValid_thenReturnBadRequest() {
+        UserDto userEmailNotValidDto = UserDto.builder()
+                .name("UserTest")
+                .email("usertestmail.ru")
+                .build();
+
+        mvc.perform(post("/users/bulk")
+                        .content(mapper.writeValueAsString(List.of(userDto, userEmailNotValidDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).createAll(any());
+    }
+
     @SneakyThrows
     @Test
     void create_whenUserEmailNotValid_thenReturnBadRequest() {
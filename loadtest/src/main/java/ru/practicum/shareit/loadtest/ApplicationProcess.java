@@ -0,0 +1,78 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The server or the gateway running from its executable jar in a JVM of its own, with its output written to a log
+ * file. The process is stopped on {@link #close()}.
+ */
+public class ApplicationProcess implements AutoCloseable {
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(15);
+    private final String name;
+    private final Process process;
+    private final URI healthUri;
+    private final Path log;
+
+    private ApplicationProcess(String name, Process process, int port, Path log) {
+        this.name = name;
+        this.process = process;
+        this.healthUri = URI.create("http://localhost:" + port + "/actuator/health");
+        this.log = log;
+    }
+
+    public static ApplicationProcess start(String name, Path jar, int port, List<String> jvmArgs,
+                                           List<String> appArgs, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ApplicationProcess(name, process, port, log);
+    }
+
+    /**
+     * Waits until the application reports itself healthy, and fails if it does not within {@code timeout} or exits.
+     */
+    public void awaitHealthy(HttpClient httpClient, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(healthUri).timeout(Duration.ofSeconds(2)).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(String.format("The %s exited with code %d, see %s.", name,
+                        process.exitValue(), log));
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(String.format("The %s did not start within %s, see %s.", name, timeout, log));
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out booking times that never overlap: one-minute slots two minutes apart, starting a day from now, so that
+ * no booking the load test creates is refused because its item is taken.
+ */
+public class BookingSlots {
+    private final LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    private final AtomicLong taken = new AtomicLong();
+
+    public LocalDateTime nextStart() {
+        return first.plusMinutes(2 * taken.getAndIncrement());
+    }
+
+    public static LocalDateTime endOf(LocalDateTime start) {
+        return start.plusMinutes(1);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.loadtest;
+
+import ru.practicum.shareit.loadtest.SeededData.SeededItem;
+import ru.practicum.shareit.loadtest.SeededData.WaitingBooking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Creates the data the workload runs against through the gateway API: {@code users} users with
+ * {@code itemsPerUser} items each, and {@code bookingsPerItem} bookings of every item by the users next to its owner.
+ * The first booking of every item is approved, the rest are left waiting. Requests are sent {@code concurrency} at a
+ * time, and users and items go in bulk, so seeding a large dataset takes a fraction of the run.
+ */
+public class DataSeeder {
+    public static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bicycle", "camera", "projector"};
+    private static final int USERS_PER_REQUEST = 1000;
+    private static final int BOOKINGS_PER_APPROVAL = 100;
+    private final ShareItApi api;
+    private final LoadTestOptions options;
+    private final BookingSlots bookingSlots;
+
+    public DataSeeder(ShareItApi api, LoadTestOptions options, BookingSlots bookingSlots) {
+        this.api = api;
+        this.options = options;
+        this.bookingSlots = bookingSlots;
+    }
+
+    public SeededData seed() throws InterruptedException {
+        List<Long> userIds = createUsers();
+        List<SeededItem> items = createItems(userIds);
+        Queue<WaitingBooking> waitingBookings = createBookings(userIds, items);
+        return new SeededData(userIds, items, waitingBookings);
+    }
+
+    private List<Long> createUsers() {
+        List<Long> userIds = new ArrayList<>(options.getUsers());
+        for (int first = 0; first < options.getUsers(); first += USERS_PER_REQUEST) {
+            List<Map<String, Object>> users = new ArrayList<>();
+            for (int i = first; i < Math.min(options.getUsers(), first + USERS_PER_REQUEST); i++) {
+                users.add(Map.of("name", "User " + i, "email", "user" + i + "@loadtest.ru"));
+            }
+            userIds.addAll(api.createUsers(users));
+        }
+        return userIds;
+    }
+
+    private List<SeededItem> createItems(List<Long> userIds) throws InterruptedException {
+        Map<Long, List<Long>> itemIds = Collections.synchronizedMap(new HashMap<>());
+        forEach(userIds, ownerId -> {
+            List<Map<String, Object>> items = new ArrayList<>(options.getItemsPerUser());
+            for (int i = 0; i < options.getItemsPerUser(); i++) {
+                String word = WORDS[(int) ((ownerId + i) % WORDS.length)];
+                items.add(Map.of("name", word + " " + ownerId + "-" + i,
+                        "description", "A " + word + " in good condition",
+                        "available", true));
+            }
+            itemIds.put(ownerId, api.importItems(ownerId, items));
+        });
+
+        List<SeededItem> items = new ArrayList<>(userIds.size() * options.getItemsPerUser());
+        userIds.forEach(ownerId -> itemIds.get(ownerId).forEach(itemId -> items.add(new SeededItem(itemId, ownerId))));
+        return items;
+    }
+
+    private Queue<WaitingBooking> createBookings(List<Long> userIds, List<SeededItem> items) throws InterruptedException {
+        Map<Long, Integer> userIndexes = new HashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            userIndexes.put(userIds.get(i), i);
+        }
+        Map<Long, List<Long>> approvedByOwner = new LinkedHashMap<>();
+        Queue<WaitingBooking> waitingBookings = new ConcurrentLinkedQueue<>();
+        forEach(items, item -> {
+            int ownerIndex = userIndexes.get(item.getOwnerId());
+            for (int i = 0; i < options.getBookingsPerItem(); i++) {
+                long bookerId = userIds.get((ownerIndex + 1 + i % (userIds.size() - 1)) % userIds.size());
+                LocalDateTime start = bookingSlots.nextStart();
+                long bookingId = api.createBooking(bookerId, item.getId(), start, BookingSlots.endOf(start));
+                if (i == 0) {
+                    synchronized (approvedByOwner) {
+                        approvedByOwner.computeIfAbsent(item.getOwnerId(), id -> new ArrayList<>()).add(bookingId);
+                    }
+                } else {
+                    waitingBookings.add(new WaitingBooking(bookingId, item.getOwnerId()));
+                }
+            }
+        });
+
+        forEach(approvedByOwner.entrySet(), owner -> {
+            List<Long> bookingIds = owner.getValue();
+            for (int first = 0; first < bookingIds.size(); first += BOOKINGS_PER_APPROVAL) {
+                api.approveBookings(owner.getKey(),
+                        bookingIds.subList(first, Math.min(bookingIds.size(), first + BOOKINGS_PER_APPROVAL)));
+            }
+        });
+        return waitingBookings;
+    }
+
+    /**
+     * Runs {@code task} for every element on virtual threads, at most {@code concurrency} at a time, and fails with
+     * the first failure once all have finished.
+     */
+    private <T> void forEach(Collection<T> elements, Consumer<T> task) throws InterruptedException {
+        Semaphore permits = new Semaphore(options.getConcurrency());
+        List<Future<?>> futures = new ArrayList<>(elements.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T element : elements) {
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        task.accept(element);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+}
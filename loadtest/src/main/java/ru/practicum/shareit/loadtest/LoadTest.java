@@ -0,0 +1,95 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Starts the server on an in-memory H2 database and the gateway in front of it, each in a JVM of its own on free
+ * ports, seeds the data, runs the workload and reports the results; see {@link LoadTestOptions#USAGE} for the options.
+ * Nothing outside the machine is needed.
+ * <pre>
+ * mvn package -DskipTests
+ * java -jar loadtest/target/loadtest.jar --users=1000 --concurrency=100 --duration=2m
+ * </pre>
+ */
+public class LoadTest {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        Files.createDirectories(options.getOutput());
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        List<String> logLevels = List.of("--logging.level.root=" + options.getLogLevel(),
+                "--logging.level.org.springframework.transaction.interceptor=" + options.getLogLevel(),
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=" + options.getLogLevel(),
+                "--logging.level.org.springframework.web.client.RestTemplate=" + options.getLogLevel(),
+                "--logging.level.org.apache.http=" + options.getLogLevel(),
+                "--logging.level.httpclient.wire=" + options.getLogLevel());
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        System.out.printf("Starting the server on port %d and the gateway on port %d.%n", serverPort, gatewayPort);
+        try (ApplicationProcess server = ApplicationProcess.start("server", options.getServerJar(), serverPort,
+                options.getJvmArgs(), concat(logLevels, "--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest"), options.getOutput().resolve("server.log"));
+             ApplicationProcess gateway = ApplicationProcess.start("gateway", options.getGatewayJar(), gatewayPort,
+                     options.getJvmArgs(), concat(logLevels, "--shareit-server.url=http://localhost:" + serverPort),
+                     options.getOutput().resolve("gateway.log"))) {
+            server.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+            gateway.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+
+            ShareItApi api = new ShareItApi(httpClient, new ObjectMapper(), URI.create("http://localhost:" + gatewayPort));
+            BookingSlots bookingSlots = new BookingSlots();
+            long seedingStarted = System.nanoTime();
+            SeededData data = new DataSeeder(api, options, bookingSlots).seed();
+            System.out.printf("Seeded %d users, %d items and %d bookings in %.1f s.%n", data.getUserIds().size(),
+                    data.getItems().size(), data.getItems().size() * options.getBookingsPerItem(),
+                    (System.nanoTime() - seedingStarted) / 1e9);
+
+            System.out.printf("Running %d virtual users: %s of warmup, then %s measured.%n", options.getConcurrency(),
+                    options.getWarmup(), options.getDuration());
+            LoadTestReport report = new Workload(api, data, options, bookingSlots).run();
+            report.print(System.out);
+            Path reportFile = options.getOutput().resolve("report.json");
+            report.write(reportFile);
+            System.out.printf("Report written to %s.%n", reportFile);
+        }
+    }
+
+    private static List<String> concat(List<String> args, String... more) {
+        return Stream.concat(args.stream(), Arrays.stream(more)).toList();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
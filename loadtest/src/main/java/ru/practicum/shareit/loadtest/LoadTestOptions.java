@@ -0,0 +1,145 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The options of a load test run, given on the command line as {@code --name=value}. Everything has a default, so a
+ * plain run needs nothing but the built server and gateway jars, which are looked up in {@code server/target} and
+ * {@code gateway/target} of the project.
+ */
+@Getter
+public class LoadTestOptions {
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Options, all optional:",
+            "  --users=100               users to create, each of them owns items",
+            "  --items-per-user=10       items of every user",
+            "  --bookings-per-item=2     bookings of every item; the first is approved, the rest wait for approval",
+            "  --concurrency=50          virtual users sending requests at the same time",
+            "  --warmup=10s              time to run the workload before measuring (ms, s or m)",
+            "  --duration=60s            time to measure the workload (ms, s or m)",
+            "  --mix=search:40,owner-items:30,create-booking:15,approve-booking:15",
+            "                            relative weights of the operations",
+            "  --server-jar=PATH         executable jar of the server, server/target/*-exec.jar by default",
+            "  --gateway-jar=PATH        executable jar of the gateway, gateway/target/*-exec.jar by default",
+            "  --jvm-args=\"-Xmx512m\"     arguments of the server and gateway JVMs",
+            "  --log-level=WARN          log level of the server and gateway",
+            "  --output=loadtest-results directory for the application logs and report.json");
+    private int users = 100;
+    private int itemsPerUser = 10;
+    private int bookingsPerItem = 2;
+    private int concurrency = 50;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Map<Operation, Integer> mix = parseMix("search:40,owner-items:30,create-booking:15,approve-booking:15");
+    private Path serverJar;
+    private Path gatewayJar;
+    private List<String> jvmArgs = List.of();
+    private String logLevel = "WARN";
+    private Path output = Path.of("loadtest-results");
+
+    public static LoadTestOptions parse(String... args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format("Expected --name=value, got: %s", arg));
+            }
+            options.set(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (options.users < 2) {
+            throw new IllegalArgumentException("At least 2 users are needed, so that someone can book an item.");
+        }
+        if (options.itemsPerUser < 1 || options.bookingsPerItem < 1 || options.concurrency < 1) {
+            throw new IllegalArgumentException("Items per user, bookings per item and concurrency must be positive.");
+        }
+        return options;
+    }
+
+    /**
+     * The server jar given with {@code --server-jar}, or the one built into {@code server/target}.
+     */
+    public Path getServerJar() {
+        return serverJar != null ? serverJar : findJar("server");
+    }
+
+    public Path getGatewayJar() {
+        return gatewayJar != null ? gatewayJar : findJar("gateway");
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "users" -> users = Integer.parseInt(value);
+            case "items-per-user" -> itemsPerUser = Integer.parseInt(value);
+            case "bookings-per-item" -> bookingsPerItem = Integer.parseInt(value);
+            case "concurrency" -> concurrency = Integer.parseInt(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "duration" -> duration = parseDuration(value);
+            case "mix" -> mix = parseMix(value);
+            case "server-jar" -> serverJar = Path.of(value);
+            case "gateway-jar" -> gatewayJar = Path.of(value);
+            case "jvm-args" -> jvmArgs = Arrays.stream(value.trim().split("\\s+")).filter(s -> !s.isEmpty()).toList();
+            case "log-level" -> logLevel = value;
+            case "output" -> output = Path.of(value);
+            default -> throw new IllegalArgumentException(String.format("Unknown option: --%s", name));
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException(String.format("Expected a duration such as 500ms, 30s or 2m, got: %s", value));
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String weight : value.split(",")) {
+            String[] parts = weight.split(":");
+            if (parts.length != 2 || Integer.parseInt(parts[1].trim()) < 0) {
+                throw new IllegalArgumentException(String.format("Expected operation:weight, got: %s", weight));
+            }
+            mix.put(Operation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one operation of the mix must have a positive weight.");
+        }
+        return mix;
+    }
+
+    private static Path findJar(String module) {
+        return Stream.of(Path.of(module, "target"), Path.of("..", module, "target"))
+                .filter(Files::isDirectory)
+                .map(LoadTestOptions::findExecutableJar)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "No %s/target/*-exec.jar found: build the project with mvn package or pass --%s-jar.",
+                        module, module)));
+    }
+
+    private static Optional<Path> findExecutableJar(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
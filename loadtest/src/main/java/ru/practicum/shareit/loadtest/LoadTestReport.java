@@ -0,0 +1,101 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput, error count and latency percentiles of every operation of a run and of all of them together, printed
+ * as a table and written as JSON for comparing runs. Latencies are in milliseconds.
+ */
+@Getter
+public class LoadTestReport {
+    private final Map<String, Object> options = new LinkedHashMap<>();
+    private final double seconds;
+    private final List<OperationResult> operations = new ArrayList<>();
+    private final OperationResult total;
+    private final Map<String, String> firstErrors = new LinkedHashMap<>();
+
+    public LoadTestReport(LoadTestOptions options, Duration elapsed, Map<Operation, Histogram> latencies,
+                          Map<Operation, Long> errors, Map<Operation, String> firstErrors) {
+        this.options.put("users", options.getUsers());
+        this.options.put("itemsPerUser", options.getItemsPerUser());
+        this.options.put("bookingsPerItem", options.getBookingsPerItem());
+        this.options.put("concurrency", options.getConcurrency());
+        this.options.put("warmupSeconds", options.getWarmup().toSeconds());
+        this.options.put("durationSeconds", options.getDuration().toSeconds());
+        options.getMix().forEach((operation, weight) -> this.options.put("mix." + operation.getName(), weight));
+        this.seconds = elapsed.toNanos() / 1e9;
+
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            long operationErrors = errors.getOrDefault(entry.getKey(), 0L);
+            if (entry.getValue().getTotalCount() + operationErrors == 0) {
+                continue;
+            }
+            operations.add(result(entry.getKey().getName(), entry.getValue(), operationErrors));
+            all.add(entry.getValue());
+            allErrors += operationErrors;
+        }
+        this.total = result("total", all, allErrors);
+        firstErrors.forEach((operation, error) -> this.firstErrors.put(operation.getName(), error));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50", "p90", "p99", "p99.9", "max");
+        operations.forEach(result -> print(out, result));
+        print(out, total);
+        out.printf("Measured for %.1f s, latencies in ms.%n", seconds);
+        firstErrors.forEach((operation, error) -> out.printf("First %s error: %s%n", operation, error));
+    }
+
+    public void write(Path file) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    private void print(PrintStream out, OperationResult result) {
+        out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", result.operation, result.requests,
+                result.errors, result.throughput, result.p50, result.p90, result.p99, result.p999, result.max);
+    }
+
+    private OperationResult result(String operation, Histogram latencies, long errors) {
+        return new OperationResult(operation, latencies.getTotalCount(), errors,
+                seconds > 0 ? latencies.getTotalCount() / seconds : 0,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OperationResult {
+        private final String operation;
+        private final long requests;
+        private final long errors;
+        private final double throughput;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double p999;
+        private final double max;
+    }
+}
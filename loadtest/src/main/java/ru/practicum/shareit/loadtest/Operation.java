@@ -0,0 +1,42 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The requests a virtual user of the load test sends, each chosen with the weight given for it in the mix.
+ */
+public enum Operation {
+    /**
+     * {@code GET /items/search} for one of the words item names are made of, first page only.
+     */
+    SEARCH("search"),
+    /**
+     * {@code GET /items} of an owner: every item with its last and next booking and its comments.
+     */
+    OWNER_ITEMS("owner-items"),
+    /**
+     * {@code POST /bookings} of an item of another user, in a time slot nobody else books.
+     */
+    CREATE_BOOKING("create-booking"),
+    /**
+     * {@code PATCH /bookings/{id}?approved=true} of a waiting booking by the owner of its item.
+     */
+    APPROVE_BOOKING("approve-booking");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown operation: %s", name)));
+    }
+}
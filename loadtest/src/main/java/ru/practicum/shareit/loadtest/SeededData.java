@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * What {@link DataSeeder} has created: the users, their items, and the bookings still waiting for approval, which
+ * the workload approves and adds to.
+ */
+@Getter
+@AllArgsConstructor
+public class SeededData {
+    private final List<Long> userIds;
+    private final List<SeededItem> items;
+    private final Queue<WaitingBooking> waitingBookings;
+
+    @Getter
+    @AllArgsConstructor
+    public static class SeededItem {
+        private final long id;
+        private final long ownerId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class WaitingBooking {
+        private final long id;
+        private final long ownerId;
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The gateway API as the load test uses it. Every call reads the whole response, so that its latency covers the
+ * body as well, and throws {@link UnexpectedResponseException} unless the status is 2xx.
+ */
+public class ShareItApi {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI gateway;
+
+    public ShareItApi(HttpClient httpClient, ObjectMapper objectMapper, URI gateway) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.gateway = gateway;
+    }
+
+    /**
+     * Creates the users with one request and returns their ids in the given order.
+     */
+    public List<Long> createUsers(List<Map<String, Object>> users) {
+        JsonNode created = json(send(post("/users/bulk", null, "application/json", write(users))));
+        List<Long> ids = new ArrayList<>(users.size());
+        created.forEach(user -> ids.add(user.path("id").asLong()));
+        return ids;
+    }
+
+    /**
+     * Imports the items of the owner as newline-delimited JSON and returns the ids of the items in the given order.
+     */
+    public List<Long> importItems(long ownerId, List<Map<String, Object>> items) {
+        String rows = items.stream().map(this::write).collect(Collectors.joining("\n", "", "\n"));
+        String results = new String(send(post("/items/bulk", ownerId, "application/x-ndjson", rows)).body(),
+                StandardCharsets.UTF_8);
+        List<Long> ids = new ArrayList<>(items.size());
+        for (String row : results.split("\n")) {
+            JsonNode result = json(row.getBytes(StandardCharsets.UTF_8));
+            if (result.path("code").asInt() != 200) {
+                throw new UnexpectedResponseException(String.format("Item row %d was not imported: %s",
+                        result.path("row").asLong(), result.path("error").asText()));
+            }
+            ids.add(result.path("itemId").asLong());
+        }
+        return ids;
+    }
+
+    public long createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        String booking = write(Map.of("itemId", itemId, "start", start.toString(), "end", end.toString()));
+        return json(send(post("/bookings", bookerId, "application/json", booking))).path("id").asLong();
+    }
+
+    public void approveBooking(long ownerId, long bookingId) {
+        send(request("/bookings/" + bookingId + "?approved=true", ownerId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    /**
+     * Approves up to 100 bookings of items of the owner with one request.
+     */
+    public void approveBookings(long ownerId, List<Long> bookingIds) {
+        String update = write(Map.of("bookingIds", bookingIds, "approved", true));
+        send(request("/bookings/status", ownerId)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(update))
+                .build());
+    }
+
+    public byte[] search(long userId, String text) {
+        String query = "?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=20";
+        return send(request("/items/search" + query, userId).GET().build()).body();
+    }
+
+    public byte[] findOwnerItems(long ownerId) {
+        return send(request("/items", ownerId).GET().build()).body();
+    }
+
+    private HttpRequest post(String path, Long userId, String contentType, String body) {
+        return request(path, userId)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(gateway.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (userId != null) {
+            request.header(USER_HEADER, String.valueOf(userId));
+        }
+        return request;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) {
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a response.", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new UnexpectedResponseException(String.format("%s %s answered %d: %s", request.method(),
+                    request.uri().getPath(), response.statusCode(), new String(response.body(), StandardCharsets.UTF_8)));
+        }
+        return response;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) {
+        return json(response.body());
+    }
+
+    private JsonNode json(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.loadtest;
+
+public class UnexpectedResponseException extends RuntimeException {
+    public UnexpectedResponseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import ru.practicum.shareit.loadtest.SeededData.SeededItem;
+import ru.practicum.shareit.loadtest.SeededData.WaitingBooking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the operation mix with {@code concurrency} virtual users, each on a virtual thread of its own, sending its
+ * next request as soon as the previous one is answered. Latencies of the warmup are thrown away; after it, the
+ * latency of every successful request is recorded per operation, and failed requests are counted.
+ * <p>
+ * This is a closed workload: when the application slows down, the virtual users send fewer requests, so the
+ * percentiles show how long requests took at the throughput reached, not how long they would take at a fixed
+ * arrival rate.
+ */
+public class Workload {
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private final ShareItApi api;
+    private final SeededData data;
+    private final LoadTestOptions options;
+    private final BookingSlots bookingSlots;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+
+    public Workload(ShareItApi api, SeededData data, LoadTestOptions options, BookingSlots bookingSlots) {
+        this.api = api;
+        this.data = data;
+        this.options = options;
+        this.bookingSlots = bookingSlots;
+        List<Map.Entry<Operation, Integer>> mix = options.getMix().entrySet().stream()
+                .filter(weight -> weight.getValue() > 0)
+                .toList();
+        this.operations = new Operation[mix.size()];
+        this.cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            total += mix.get(i).getValue();
+            operations[i] = mix.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + options.getWarmup().toNanos();
+        long end = measureFrom + options.getDuration().toNanos();
+        long measured;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.getConcurrency(); i++) {
+                executor.submit(() -> runVirtualUser(end));
+            }
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            latencies.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+            firstErrors.clear();
+            measured = System.nanoTime();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - measured);
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, latencies.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new LoadTestReport(options, elapsed, histograms, errorCounts, Map.copyOf(firstErrors));
+    }
+
+    private void runVirtualUser(long end) {
+        while (System.nanoTime() < end) {
+            Operation operation = nextOperation();
+            long start = System.nanoTime();
+            try {
+                operation = execute(operation);
+                latencies.get(operation).recordValue(Math.min(HIGHEST_LATENCY_MICROS,
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+            } catch (RuntimeException e) {
+                errors.get(operation).increment();
+                firstErrors.putIfAbsent(operation, String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Sends the request of {@code operation} and returns the operation done, which is a booking instead of an
+     * approval when no booking is waiting.
+     */
+    private Operation execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case SEARCH -> api.search(randomUser(), DataSeeder.WORDS[random.nextInt(DataSeeder.WORDS.length)]);
+            case OWNER_ITEMS -> api.findOwnerItems(randomUser());
+            case CREATE_BOOKING -> {
+                SeededItem item = data.getItems().get(random.nextInt(data.getItems().size()));
+                long bookerId = randomUser();
+                while (bookerId == item.getOwnerId()) {
+                    bookerId = randomUser();
+                }
+                LocalDateTime start = bookingSlots.nextStart();
+                long bookingId = api.createBooking(bookerId, item.getId(), start, BookingSlots.endOf(start));
+                data.getWaitingBookings().add(new WaitingBooking(bookingId, item.getOwnerId()));
+            }
+            case APPROVE_BOOKING -> {
+                WaitingBooking booking = data.getWaitingBookings().poll();
+                if (booking == null) {
+                    return execute(Operation.CREATE_BOOKING);
+                }
+                api.approveBooking(booking.getOwnerId(), booking.getId());
+            }
+        }
+        return operation;
+    }
+
+    private Operation nextOperation() {
+        int weight = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (weight < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weight out of range: " + weight);
+    }
+
+    private long randomUser() {
+        return data.getUserIds().get(ThreadLocalRandom.current().nextInt(data.getUserIds().size()));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void parse_whenNoArguments_thenUseDefaults() {
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        assertEquals(100, options.getUsers());
+        assertEquals(50, options.getConcurrency());
+        assertEquals(Duration.ofSeconds(60), options.getDuration());
+        assertEquals(Map.of(Operation.SEARCH, 40, Operation.OWNER_ITEMS, 30, Operation.CREATE_BOOKING, 15,
+                Operation.APPROVE_BOOKING, 15), options.getMix());
+        assertEquals("WARN", options.getLogLevel());
+    }
+
+    @Test
+    void parse_whenArgumentsGiven_thenOverrideDefaults() {
+        LoadTestOptions options = LoadTestOptions.parse("--users=1000", "--items-per-user=3", "--bookings-per-item=4",
+                "--concurrency=200", "--warmup=500ms", "--duration=2m", "--mix=search:1,owner-items:0",
+                "--server-jar=server.jar", "--jvm-args= -Xmx1g  -XX:+UseZGC ", "--output=results");
+
+        assertEquals(1000, options.getUsers());
+        assertEquals(3, options.getItemsPerUser());
+        assertEquals(4, options.getBookingsPerItem());
+        assertEquals(200, options.getConcurrency());
+        assertEquals(Duration.ofMillis(500), options.getWarmup());
+        assertEquals(Duration.ofMinutes(2), options.getDuration());
+        assertEquals(Map.of(Operation.SEARCH, 1, Operation.OWNER_ITEMS, 0), options.getMix());
+        assertEquals(Path.of("server.jar"), options.getServerJar());
+        assertEquals(List.of("-Xmx1g", "-XX:+UseZGC"), options.getJvmArgs());
+        assertEquals(Path.of("results"), options.getOutput());
+    }
+
+    @Test
+    void parse_whenOptionUnknown_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--userz=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("users=10"));
+    }
+
+    @Test
+    void parse_whenValuesInvalid_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--users=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--duration=10h"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=search:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=browse:10"));
+    }
+}
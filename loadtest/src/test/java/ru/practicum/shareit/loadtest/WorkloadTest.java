@@ -0,0 +1,158 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Long> itemOwners = new ConcurrentHashMap<>();
+    private final Set<String> bookedByOwner = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean searchFails = new AtomicBoolean();
+    private HttpServer server;
+    private ShareItApi api;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users/bulk", exchange -> {
+            StringBuilder users = new StringBuilder("[");
+            for (JsonNode ignored : objectMapper.readTree(exchange.getRequestBody())) {
+                users.append(users.length() > 1 ? "," : "").append("{\"id\":").append(ids.incrementAndGet()).append('}');
+            }
+            respond(exchange, 200, users.append(']').toString());
+        });
+        server.createContext("/items/bulk", exchange -> {
+            long ownerId = userId(exchange);
+            String[] rows = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            StringBuilder results = new StringBuilder();
+            for (int row = 1; row <= rows.length; row++) {
+                long itemId = ids.incrementAndGet();
+                itemOwners.put(itemId, ownerId);
+                results.append(String.format("{\"row\":%d,\"code\":200,\"itemId\":%d}%n", row, itemId));
+            }
+            respond(exchange, 200, results.toString());
+        });
+        server.createContext("/items/search", exchange -> respond(exchange, searchFails.get() ? 500 : 200, "[]"));
+        server.createContext("/items", exchange -> respond(exchange, 200, "[]"));
+        server.createContext("/bookings", exchange -> {
+            if (exchange.getRequestMethod().equals("POST")) {
+                long itemId = objectMapper.readTree(exchange.getRequestBody()).path("itemId").asLong();
+                if (itemOwners.get(itemId) == userId(exchange)) {
+                    bookedByOwner.add(exchange.getRequestURI().toString());
+                }
+                respond(exchange, 200, "{\"id\":" + ids.incrementAndGet() + "}");
+                return;
+            }
+            respond(exchange, 200, exchange.getRequestURI().getPath().endsWith("/status") ? "[]" : "{}");
+        });
+        server.start();
+        api = new ShareItApi(HttpClient.newHttpClient(), objectMapper,
+                URI.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void seed_whenRun_thenCreateUsersItemsAndWaitingBookings() throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse("--users=3", "--items-per-user=2", "--bookings-per-item=3");
+
+        SeededData data = new DataSeeder(api, options, new BookingSlots()).seed();
+
+        assertEquals(3, data.getUserIds().size());
+        assertEquals(6, data.getItems().size());
+        assertEquals(12, data.getWaitingBookings().size());
+        assertEquals(itemOwners.keySet(), data.getItems().stream().map(SeededData.SeededItem::getId).collect(Collectors.toSet()));
+        assertTrue(bookedByOwner.isEmpty(), "Nobody may book an item of their own");
+    }
+
+    @Test
+    void run_whenRequestsSucceed_thenReportEveryOperation() throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse("--users=3", "--items-per-user=2", "--concurrency=4",
+                "--warmup=100ms", "--duration=500ms");
+        BookingSlots bookingSlots = new BookingSlots();
+        SeededData data = new DataSeeder(api, options, bookingSlots).seed();
+
+        LoadTestReport report = new Workload(api, data, options, bookingSlots).run();
+
+        assertEquals(4, report.getOperations().size());
+        assertTrue(report.getTotal().getRequests() > 0);
+        assertEquals(0, report.getTotal().getErrors());
+        assertTrue(report.getTotal().getThroughput() > 0);
+        assertTrue(report.getTotal().getP50() <= report.getTotal().getP99());
+        assertTrue(bookedByOwner.isEmpty(), "Nobody may book an item of their own");
+    }
+
+    @Test
+    void run_whenRequestsFail_thenCountErrorsAndKeepFirstMessage() throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse("--users=2", "--items-per-user=1", "--concurrency=2",
+                "--warmup=0ms", "--duration=200ms", "--mix=search:1");
+        SeededData data = new DataSeeder(api, options, new BookingSlots()).seed();
+        searchFails.set(true);
+
+        LoadTestReport report = new Workload(api, data, options, new BookingSlots()).run();
+
+        assertEquals(0, report.getTotal().getRequests());
+        assertTrue(report.getTotal().getErrors() > 0);
+        assertTrue(report.getFirstErrors().get("search").startsWith("GET /items/search answered 500"));
+    }
+
+    @Test
+    void write_whenRun_thenPrintTableAndWriteJson(@TempDir Path directory) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse("--users=2", "--items-per-user=1", "--concurrency=1",
+                "--warmup=0ms", "--duration=100ms", "--mix=owner-items:1");
+        LoadTestReport report = new Workload(api, new DataSeeder(api, options, new BookingSlots()).seed(), options,
+                new BookingSlots()).run();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        report.print(new PrintStream(output, true, StandardCharsets.UTF_8));
+        report.write(directory.resolve("report.json"));
+
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("owner-items"));
+        JsonNode json = objectMapper.readTree(Files.readString(directory.resolve("report.json")));
+        assertEquals("owner-items", json.path("operations").get(0).path("operation").asText());
+        assertEquals(1, json.path("options").path("concurrency").asInt());
+        assertTrue(json.path("total").path("requests").asLong() > 0);
+    }
+
+    private static long userId(HttpExchange exchange) {
+        return Long.parseLong(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingField;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.stream.JsonStreamWriter;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ReturnBookingDto create(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -28,6 +41,12 @@ public class BookingController {
         return bookingService.statusUpdate(userId, bookingId, approved);
     }
 
+    @PatchMapping("/status")
+    public List<BookingStatusResultDto> statusUpdateAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestBody BookingStatusUpdateDto statusUpdateDto) {
+        return bookingService.statusUpdateAll(userId, statusUpdateDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ReturnBookingDto findById(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId) {
@@ -35,18 +54,75 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<ReturnBookingDto> findAllByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                                    @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                    @RequestParam(required = false) Integer from,
-                                                    @RequestParam(required = false) Integer size) {
-        return bookingService.findAllByBookerId(bookerId, state, from, size);
+    public ResponseEntity<List<ReturnBookingDto>> findAllByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                                                    @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                                    @RequestParam(required = false) Integer from,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String fields) {
+        Set<BookingField> selectedFields = fields == null ? null : BookingField.parse(fields);
+        List<ReturnBookingDto> bookings = (cursor != null && from == null)
+                ? bookingService.scrollAllByBookerId(bookerId, state, cursor, size)
+                : bookingService.findAllByBookerId(bookerId, state, from, size);
+        return withNextCursor(bookings, size, selectedFields);
+    }
+
+    /**
+     * Without paging or a cursor the bookings are streamed as a JSON array, or as newline-delimited JSON when the
+     * client accepts it.
+     */
+    @GetMapping(params = {"!from", "!cursor"})
+    public void streamAllByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                    @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                    @RequestParam(required = false) String fields,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) {
+        Set<BookingField> selectedFields = fields == null ? null : BookingField.parse(fields);
+        JsonStreamWriter bookings = JsonStreamWriter.forAccept(objectMapper, request, response);
+        bookingService.streamAllByBookerId(bookerId, state, booking -> bookings.write(only(booking, selectedFields)));
+        bookings.close();
     }
 
     @GetMapping("/owner")
-    public List<ReturnBookingDto> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                 @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                                 @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
-        return bookingService.findAllByOwnerId(ownerId, state, from, size);
+    public ResponseEntity<List<ReturnBookingDto>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                 @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                                 @RequestParam(required = false) Integer from,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) String fields) {
+        Set<BookingField> selectedFields = fields == null ? null : BookingField.parse(fields);
+        List<ReturnBookingDto> bookings = (cursor != null && from == null)
+                ? bookingService.scrollAllByOwnerId(ownerId, state, cursor, size)
+                : bookingService.findAllByOwnerId(ownerId, state, from, size);
+        return withNextCursor(bookings, size, selectedFields);
+    }
+
+    @GetMapping(value = "/owner", params = {"!from", "!cursor"})
+    public void streamAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                 @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                 @RequestParam(required = false) String fields,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) {
+        Set<BookingField> selectedFields = fields == null ? null : BookingField.parse(fields);
+        JsonStreamWriter bookings = JsonStreamWriter.forAccept(objectMapper, request, response);
+        bookingService.streamAllByOwnerId(ownerId, state, booking -> bookings.write(only(booking, selectedFields)));
+        bookings.close();
+    }
+
+    private static ReturnBookingDto only(ReturnBookingDto booking, Set<BookingField> fields) {
+        return fields == null ? booking : booking.only(fields);
+    }
+
+    private ResponseEntity<List<ReturnBookingDto>> withNextCursor(List<ReturnBookingDto> bookings, Integer size,
+                                                                  Set<BookingField> fields) {
+        List<ReturnBookingDto> body = fields == null
+                ? bookings
+                : bookings.stream().map(booking -> booking.only(fields)).collect(Collectors.toList());
+        if (size == null || bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BookingDtoForList {
+    private long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long itemId;
+    private String itemName;
+    private long bookerId;
+    private BookingStatus status;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Top-level fields of {@link ReturnBookingDto} that a client can select with the {@code fields} parameter.
+ */
+public enum BookingField {
+    ID, START, END, ITEM, BOOKER, STATUS;
+
+    /**
+     * Parses a comma-separated, case-insensitive field list such as {@code "id,start,item"}.
+     */
+    public static Set<BookingField> parse(String fields) {
+        Set<BookingField> result = EnumSet.noneOf(BookingField.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(BookingField.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(String.format("Unknown booking field: %s. Allowed fields: %s",
+                        field.trim(), Arrays.toString(values()).toLowerCase(Locale.ROOT)));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new BadRequestException("At least one booking field must be requested.");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * The outcome of one booking in a bulk review: the HTTP status the single review would have answered with, the
+ * status of the booking after the review when it was applied, and the reason when it was not.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStatusResultDto {
+    private long bookingId;
+    private int code;
+    private BookingStatus status;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingStatusUpdateDto {
+    private List<Long> bookingIds;
+    private Boolean approved;
+}
@@ -1,20 +1,35 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ReturnBookingDto {
-    private long id;
+    private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
+    private BookingItemDto item;
+    private BookerDto booker;
     private BookingStatus status;
+
+    /**
+     * Returns a copy holding only the requested fields; the rest are left out of the response.
+     */
+    public ReturnBookingDto only(Set<BookingField> fields) {
+        return ReturnBookingDto.builder()
+                .id(fields.contains(BookingField.ID) ? id : null)
+                .start(fields.contains(BookingField.START) ? start : null)
+                .end(fields.contains(BookingField.END) ? end : null)
+                .item(fields.contains(BookingField.ITEM) ? item : null)
+                .booker(fields.contains(BookingField.BOOKER) ? booker : null)
+                .status(fields.contains(BookingField.STATUS) ? status : null)
+                .build();
+    }
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -16,8 +19,19 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(new BookingItemDto(booking.getItem().getId(), booking.getItem().getName()))
+                .booker(new BookerDto(booking.getBooker().getId()))
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public ReturnBookingDto toReturnBookingDto(BookingDtoForList booking) {
+        return ReturnBookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(new BookingItemDto(booking.getItemId(), booking.getItemName()))
+                .booker(new BookerDto(booking.getBookerId()))
                 .status(booking.getStatus())
                 .build();
     }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the bookings matching a {@link BookingSpecifications specification} straight into {@link BookingDtoForList}
+ * rows: only the columns a list response shows are selected, and no entity enters the persistence context.
+ */
+public interface BookingListRepository {
+    List<BookingDtoForList> findAllForList(Specification<Booking> specification, Sort sort);
+
+    /**
+     * Returns one page of rows without counting the matches, which the list responses do not report.
+     */
+    List<BookingDtoForList> findAllForList(Specification<Booking> specification, Pageable pageable);
+
+    /**
+     * Must be called inside a transaction, and the stream must be closed.
+     */
+    Stream<BookingDtoForList> streamAllForList(Specification<Booking> specification, Sort sort);
+}
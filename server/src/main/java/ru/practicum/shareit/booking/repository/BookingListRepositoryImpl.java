@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class BookingListRepositoryImpl implements BookingListRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoForList> findAllForList(Specification<Booking> specification, Sort sort) {
+        return query(specification, sort).getResultList();
+    }
+
+    @Override
+    public List<BookingDtoForList> findAllForList(Specification<Booking> specification, Pageable pageable) {
+        TypedQuery<BookingDtoForList> query = query(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<BookingDtoForList> streamAllForList(Specification<Booking> specification, Sort sort) {
+        return query(specification, sort).getResultStream();
+    }
+
+    private TypedQuery<BookingDtoForList> query(Specification<Booking> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoForList> query = builder.createQuery(BookingDtoForList.class);
+        Root<Booking> root = query.from(Booking.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        From<Booking, Item> item = BookingSpecifications.item(root);
+        query.select(builder.construct(BookingDtoForList.class,
+                root.get("id"),
+                root.get("start"),
+                root.get("end"),
+                item.get("id"),
+                item.get("name"),
+                root.get("booker").get("id"),
+                root.get("status")));
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+}
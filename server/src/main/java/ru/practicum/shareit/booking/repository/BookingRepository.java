@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -11,75 +13,51 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Collection<Booking> findAllByBookerOrderByStartDesc(User booker);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>, BookingListRepository {
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long id);
 
-    Page<Booking> findAllByBookerOrderByStartDesc(User booker, Pageable pageable);
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
-    @Query("select b " +
-            "from Booking b " +
-            "where b.booker = ?1 " +
-            "and current_timestamp between b.start and b.end " +
-            "order by b.start desc")
-    Collection<Booking> findAllCurrentByBooker(User booker);
+    Optional<Booking> findTop1ByItemAndBookerAndEndBefore(Item item, User booker, LocalDateTime currentTime);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.id, b.start, b.end, b.item.id, b.booker.id, b.status) " +
             "from Booking b " +
-            "where b.booker = ?1 " +
-            "and current_timestamp between b.start and b.end " +
-            "order by b.start desc")
-    Page<Booking> findAllCurrentByBooker(User booker, Pageable pageable);
-
-    Collection<Booking> findAllByBookerAndEndBeforeOrderByStartDesc(User booker, LocalDateTime end);
-
-    Page<Booking> findAllByBookerAndEndBeforeOrderByStartDesc(User booker, LocalDateTime end, Pageable pageable);
-
-    Collection<Booking> findAllByBookerAndStartAfterOrderByStartDesc(User booker, LocalDateTime currentTime);
-
-    Page<Booking> findAllByBookerAndStartAfterOrderByStartDesc(User booker, LocalDateTime currentTime, Pageable pageable);
-
-    Collection<Booking> findAllByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status);
-
-    Page<Booking> findAllByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
-
-    Collection<Booking> findAllByItemOwnerOrderByStartDesc(User owner);
-
-    Page<Booking> findAllByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
-
-    @Query("select b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?3 " +
+            "and ((b.start < ?2 and b.end = (select max(l.end) from Booking l " +
+            "where l.item = b.item and l.status = ?3 and l.start < ?2)) " +
+            "or (b.start > ?2 and b.start = (select min(n.start) from Booking n " +
+            "where n.item = b.item and n.status = ?3 and n.start > ?2))) " +
+            "order by b.id")
+    Collection<BookingDtoForItem> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end, b.status) " +
             "from Booking b " +
-            "join Item i on b.item.id = i.id " +
-            "where i.owner = ?1 " +
-            "and current_timestamp between b.start and b.end " +
-            "order by b.start desc")
-    Collection<Booking> findAllCurrentByOwner(User owner);
+            "where b.item.id = ?1 " +
+            "and b.status in ?2")
+    Collection<BookingInterval> findIntervalsByItemIdAndStatusIn(long itemId, Collection<BookingStatus> statuses);
 
-    @Query("select b " +
+    @Query("select case when count(b) > 0 then true else false end " +
             "from Booking b " +
-            "join Item i on b.item.id = i.id " +
-            "where i.owner = ?1 " +
-            "and current_timestamp between b.start and b.end " +
-            "order by b.start desc")
-    Page<Booking> findAllCurrentByOwner(User owner, Pageable pageable);
-
-    Collection<Booking> findAllByItemOwnerAndEndBeforeOrderByStartDesc(User owner, LocalDateTime currentTime);
-
-    Page<Booking> findAllByItemOwnerAndEndBeforeOrderByStartDesc(User owner, LocalDateTime currentTime, Pageable pageable);
-
-    Collection<Booking> findAllByItemOwnerAndStartAfterOrderByStartDesc(User owner, LocalDateTime currentTime);
-
-    Page<Booking> findAllByItemOwnerAndStartAfterOrderByStartDesc(User owner, LocalDateTime currentTime,Pageable pageable);
-
-    Collection<Booking> findAllByItemOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status);
-
-    Page<Booking> findAllByItemOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status, Pageable pageable);
-
-    Optional<Booking> findTop1ByItemAndBookerAndEndBefore(Item item, User booker, LocalDateTime currentTime);
-
-    Optional<Booking> findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(Item item, LocalDateTime currentTime, BookingStatus status);
-
-    Optional<Booking> findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(Item item, LocalDateTime currentTime, BookingStatus status);
+            "where b.item.id = ?1 " +
+            "and b.status = ?4 " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
+            "and b.id <> ?5")
+    boolean existsOverlapping(long itemId, LocalDateTime start, LocalDateTime end, BookingStatus status, long excludedBookingId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.id, b.start, b.end, b.item.id, b.booker.id, b.status) " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3")
+    Collection<BookingDtoForItem> findOverlappingByItemIds(Collection<Long> itemIds, BookingStatus status,
+                                                           LocalDateTime start, LocalDateTime end);
 }
-
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.exception.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> hasBookerId(long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    /**
+     * Filters on the owner through the item join that {@link BookingListRepository} selects the item name from, so
+     * that the list queries join the items table once.
+     */
+    public static Specification<Booking> hasItemOwnerId(long ownerId) {
+        return (root, query, builder) -> builder.equal(item(root).get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * Keeps the bookings that come after the given one in the newest-first order of the list endpoints: an earlier
+     * start, or the same start and a lower id. The keyset of the list cursors.
+     */
+    public static Specification<Booking> after(LocalDateTime start, long id) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), start),
+                builder.and(builder.equal(root.get("start"), start), builder.lessThan(root.get("id"), id)));
+    }
+
+    public static Specification<Booking> inState(BookingState state, LocalDateTime currentTime) {
+        if (state == null) {
+            throw new BadRequestException("Unknown state: null");
+        }
+        switch (state) {
+            case ALL:
+                return (root, query, builder) -> builder.conjunction();
+            case CURRENT:
+                return (root, query, builder) -> builder.and(
+                        builder.lessThanOrEqualTo(root.get("start"), currentTime),
+                        builder.greaterThanOrEqualTo(root.get("end"), currentTime));
+            case PAST:
+                return (root, query, builder) -> builder.lessThan(root.get("end"), currentTime);
+            case FUTURE:
+                return (root, query, builder) -> builder.greaterThan(root.get("start"), currentTime);
+            case WAITING:
+                return hasStatus(BookingStatus.WAITING);
+            case REJECTED:
+                return hasStatus(BookingStatus.REJECTED);
+            default:
+                throw new BadRequestException(String.format("Unknown state: %s", state));
+        }
+    }
+
+    private static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    /**
+     * Returns the item join already made for this query, or makes one.
+     */
+    @SuppressWarnings("unchecked")
+    static From<Booking, Item> item(Root<Booking> root) {
+        for (Join<Booking, ?> join : root.getJoins()) {
+            if ("item".equals(join.getAttribute().getName())) {
+                return (From<Booking, Item>) join;
+            }
+        }
+        return root.join("item");
+    }
+}
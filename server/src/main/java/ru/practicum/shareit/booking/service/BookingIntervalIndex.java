@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the approved and waiting bookings of recently used items in memory, one {@link BookingIntervalTree} per item
+ * and status, so that availability and overlap questions do not scan the item's bookings. The trees of an item are
+ * loaded from the database on first use and then follow the bookings created and reviewed by this instance.
+ * <p>
+ * The index answers quickly but is not the authority: another instance may have approved a booking since the trees
+ * were loaded. Approval therefore re-checks overlaps in the database and bumps the item's version, so a concurrent
+ * approval of the same item fails its optimistic version check and is retried against the committed state. A hit
+ * on booking creation is confirmed in the database too, and entries expire a while after they were loaded to bound
+ * staleness.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private static final Set<BookingStatus> TRACKED_STATUSES = EnumSet.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemBookings> items;
+    private final AtomicLong modifications = new AtomicLong();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.index.maximum-items:10000}") long maximumItems,
+                                @Value("${shareit.booking.index.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maximumItems)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Tells whether an approved booking of the item overlaps {@code [start, end)}.
+     */
+    public boolean hasOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemBookings bookings = itemBookings(itemId);
+        synchronized (bookings) {
+            return bookings.trees.get(BookingStatus.APPROVED).hasOverlap(start, end);
+        }
+    }
+
+    /**
+     * Returns the approved and waiting bookings of the item that overlap {@code [start, end)}, ordered by start.
+     */
+    public List<BookingInterval> findOverlapping(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemBookings bookings = itemBookings(itemId);
+        List<BookingInterval> overlapping = new ArrayList<>();
+        synchronized (bookings) {
+            bookings.trees.values().forEach(tree -> overlapping.addAll(tree.findOverlapping(start, end)));
+        }
+        overlapping.sort(Comparator.comparing(BookingInterval::getStart).thenComparingLong(BookingInterval::getBookingId));
+        return overlapping;
+    }
+
+    /**
+     * Records the booking under its current status once the current transaction commits, or right away outside
+     * a transaction. Bookings in a status that is not tracked, such as rejected ones, are dropped from the index.
+     */
+    public void update(Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+        long itemId = booking.getItem().getId();
+        afterCommit(() -> {
+            log.info("update(): Indexing booking with id = {} of item with id = {} as {}.",
+                    interval.getBookingId(), itemId, interval.getStatus());
+            modifications.incrementAndGet();
+            ItemBookings bookings = items.getIfPresent(itemId);
+            if (bookings != null) {
+                synchronized (bookings) {
+                    bookings.put(interval);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the item's trees, so that they are loaded again from the database on next use.
+     */
+    public void invalidate(long itemId) {
+        log.info("invalidate(): Dropping bookings of item with id = {} from the interval index.", itemId);
+        items.invalidate(itemId);
+    }
+
+    private ItemBookings itemBookings(long itemId) {
+        ItemBookings bookings = items.getIfPresent(itemId);
+        if (bookings != null) {
+            return bookings;
+        }
+        // Loaded outside the cache's own compute so that the query never runs while a map bin is locked.
+        long seenModifications = modifications.get();
+        bookings = new ItemBookings(bookingRepository.findIntervalsByItemIdAndStatusIn(itemId, TRACKED_STATUSES));
+        log.info("itemBookings(): Loaded bookings of item with id = {} into the interval index.", itemId);
+        ItemBookings existing = items.asMap().putIfAbsent(itemId, bookings);
+        if (existing != null) {
+            return existing;
+        }
+        if (modifications.get() != seenModifications) {
+            // A commit landed while loading and may be missing from the snapshot: answer from it, but do not keep it.
+            items.asMap().remove(itemId, bookings);
+        }
+        return bookings;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class ItemBookings {
+        private final Map<BookingStatus, BookingIntervalTree> trees = new EnumMap<>(BookingStatus.class);
+
+        private ItemBookings(Collection<BookingInterval> intervals) {
+            TRACKED_STATUSES.forEach(status -> trees.put(status, new BookingIntervalTree(List.of())));
+            intervals.forEach(this::put);
+        }
+
+        private void put(BookingInterval interval) {
+            trees.values().forEach(tree -> tree.remove(interval.getBookingId()));
+            BookingIntervalTree tree = trees.get(interval.getStatus());
+            if (tree != null) {
+                tree.add(interval);
+            }
+        }
+    }
+}
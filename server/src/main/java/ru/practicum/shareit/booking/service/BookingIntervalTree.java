@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bookings of one item in one status as an interval tree: an AVL tree ordered by start (then booking id) in which
+ * every node also remembers the latest end within its subtree, so overlap queries skip whole subtrees that finish
+ * before the requested window. Lookups and updates take {@code O(log n)}, plus the size of the answer.
+ * <p>
+ * Intervals are half-open: a booking that ends at the moment another one starts does not overlap it. Each booking
+ * is held at most once, so adding a booking again replaces its previous period. The tree is not thread-safe.
+ */
+class BookingIntervalTree {
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getBookingId);
+    private final Map<Long, BookingInterval> intervalsById = new HashMap<>();
+    private Node root;
+
+    BookingIntervalTree(Collection<BookingInterval> intervals) {
+        intervals.forEach(this::add);
+    }
+
+    int size() {
+        return intervalsById.size();
+    }
+
+    void add(BookingInterval interval) {
+        remove(interval.getBookingId());
+        intervalsById.put(interval.getBookingId(), interval);
+        root = insert(root, interval);
+    }
+
+    void remove(long bookingId) {
+        BookingInterval interval = intervalsById.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+        }
+    }
+
+    boolean hasOverlap(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.overlaps(start, end)) {
+                return true;
+            }
+            // If something on the left ends after the window starts, it either overlaps the window or starts after
+            // the window ends, and then so does everything on the right: the left subtree alone decides.
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.interval.getStart().isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    List<BookingInterval> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<BookingInterval> overlapping = new ArrayList<>();
+        collect(root, start, end, overlapping);
+        return overlapping;
+    }
+
+    private void collect(Node node, LocalDateTime start, LocalDateTime end, List<BookingInterval> overlapping) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+        collect(node.left, start, end, overlapping);
+        if (!node.interval.getStart().isBefore(end)) {
+            return;
+        }
+        if (node.interval.overlaps(start, end)) {
+            overlapping.add(node.interval);
+        }
+        collect(node.right, start, end, overlapping);
+    }
+
+    private Node insert(Node node, BookingInterval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        int comparison = ORDER.compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = insert(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = insert(node.right, interval);
+        } else {
+            node.interval = interval;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = ORDER.compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = delete(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = delete(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        node.update();
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private BookingInterval interval;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxEnd;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = interval.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
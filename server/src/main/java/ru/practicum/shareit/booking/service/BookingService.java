@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     ReturnBookingDto create(Long userId, ReceivingBookingDto bookingDto);
 
     ReturnBookingDto statusUpdate(Long userId, Long bookingId, boolean approved);
 
+    List<BookingStatusResultDto> statusUpdateAll(Long userId, BookingStatusUpdateDto statusUpdateDto);
+
     ReturnBookingDto findById(Long userId, Long bookingId);
 
     List<ReturnBookingDto> findAllByBookerId(Long bookerId, BookingState state, Integer from, Integer size);
 
     List<ReturnBookingDto> findAllByOwnerId(Long ownerId, BookingState state, Integer from, Integer size);
+
+    void streamAllByBookerId(Long bookerId, BookingState state, Consumer<ReturnBookingDto> bookings);
+
+    void streamAllByOwnerId(Long ownerId, BookingState state, Consumer<ReturnBookingDto> bookings);
+
+    List<ReturnBookingDto> scrollAllByBookerId(Long bookerId, BookingState state, String cursor, Integer size);
+
+    List<ReturnBookingDto> scrollAllByOwnerId(Long ownerId, BookingState state, String cursor, Integer size);
 }
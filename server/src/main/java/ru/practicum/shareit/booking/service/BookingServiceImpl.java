@@ -2,9 +2,20 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -12,26 +23,52 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.concurrency.OptimisticLockRetry;
 import ru.practicum.shareit.exception.exception.BadRequestException;
+import ru.practicum.shareit.exception.exception.ConflictException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.hasBookerId;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.hasItemOwnerId;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
+
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final Sort BOOKING_ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    private static final int MAX_BULK_SIZE = 100;
+    private static final String EXCLUSION_VIOLATION = "23P01";
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ChunkedStreamReader chunkedStreamReader;
 
     @Override
     @Transactional
@@ -55,7 +92,7 @@ public class BookingServiceImpl implements BookingService {
                 });
 
         log.info("create(): Checking that the booker is not the owner of the item");
-        if (booker.equals(item.getOwner())) {
+        if (item.getOwner().getId() == userId) {
             log.error("create(): Booker is the owner of the item.");
             throw new NotFoundException(String.format("The owner with id = %d cannot reserve his item.", userId));
         }
@@ -64,24 +101,50 @@ public class BookingServiceImpl implements BookingService {
             log.error("create(): Item is not available.");
             throw new BadRequestException(String.format("Item with id = %d is not available.", receivingBookingDto.getItemId()));
         }
+        log.info("create(): Checking that the item is not booked for the requested period.");
+        if (bookingIntervalIndex.hasOverlap(item.getId(), receivingBookingDto.getStart(), receivingBookingDto.getEnd())) {
+            // The index is local to this instance and may be stale: only the database can refuse the period.
+            if (bookingRepository.existsOverlapping(item.getId(), receivingBookingDto.getStart(),
+                    receivingBookingDto.getEnd(), BookingStatus.APPROVED, 0L)) {
+                log.error("create(): Item with id = {} is already booked for the requested period.", item.getId());
+                throw new ConflictException(String.format("Item with id = %d is already booked for the requested period.", item.getId()));
+            }
+            log.warn("create(): The interval index of item with id = {} is stale, reloading it.", item.getId());
+            bookingIntervalIndex.invalidate(item.getId());
+        }
         log.info("create(): Saving the booking in the database.");
         Booking booking = bookingRepository.save(bookingMapper.toBooking(receivingBookingDto, booker, item, BookingStatus.WAITING));
+        bookingIntervalIndex.update(booking);
 
         log.info("create(): The booking was successfully saved in the database");
         return bookingMapper.toReturnBookingDto(booking);
     }
 
+    /**
+     * Runs without an outer transaction: every attempt of {@link OptimisticLockRetry} gets a fresh one, so a review
+     * that loses a race with a concurrent review of the same booking or item is re-validated against the new state.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReturnBookingDto statusUpdate(Long userId, Long bookingId, boolean approved) {
         log.info("BookingService: Beginning of method execution statusUpdate().");
+        try {
+            return optimisticLockRetry.execute("booking.status-update", () -> updateStatus(userId, bookingId, approved));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            log.error("statusUpdate(): The booking with id = {} overlaps a booking approved at the same time.", bookingId);
+            throw new ConflictException(String.format("The item is already booked for the period of booking with id = %d.", bookingId));
+        }
+    }
 
+    private ReturnBookingDto updateStatus(Long userId, Long bookingId, boolean approved) {
         log.info("statusUpdate(): Checking the existence of the owner with id = {}.", userId);
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("statusUpdate(): User with id = {} does not exist.", userId);
-                    return new BadRequestException(String.format("User with id = %d does not exist.", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("statusUpdate(): User with id = {} does not exist.", userId);
+            throw new BadRequestException(String.format("User with id = %d does not exist.", userId));
+        }
         log.info("statusUpdate(): Checking the existence of the booking with id = {}.", bookingId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> {
@@ -90,7 +153,7 @@ public class BookingServiceImpl implements BookingService {
                 });
 
         log.info("statusUpdate(): Checking if the user with id = {} is the owner for the item with id = {}.", userId, booking.getItem().getId());
-        if (!booking.getItem().getOwner().equals(owner)) {
+        if (booking.getItem().getOwner().getId() != userId) {
             log.error("statusUpdate(): The user with id = {} is not the owner of the item with id = {}.", userId, booking.getItem().getId());
             throw new NotFoundException(String.format("The user with id = %d is not the owner of the item with id = %d.", userId, booking.getItem().getId()));
         }
@@ -103,6 +166,7 @@ public class BookingServiceImpl implements BookingService {
 
         log.info("statusUpdate(): Change booking status.");
         if (approved) {
+            checkNotOverlapped(booking);
             log.info("statusUpdate(): The booking with id = {} is approved.", bookingId);
             booking.setStatus(BookingStatus.APPROVED);
         } else {
@@ -110,20 +174,122 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(BookingStatus.REJECTED);
         }
         bookingRepository.save(booking);
+        bookingIntervalIndex.update(booking);
 
         log.info("statusUpdate(): The booking status was successfully update.");
         return bookingMapper.toReturnBookingDto(booking);
     }
 
+    /**
+     * Reviews many bookings of one owner in a single transaction, retried as a whole like {@link #statusUpdate}.
+     * The bookings are loaded with one query and checked together; those that are missing, belong to another owner's
+     * item or cannot take the decision are reported with the status the single review would answer and left as they
+     * are. The others change in one flush, which Hibernate sends as one JDBC batch of versioned updates.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingStatusResultDto> statusUpdateAll(Long userId, BookingStatusUpdateDto statusUpdateDto) {
+        log.info("BookingService: Beginning of method execution statusUpdateAll().");
+        log.info("statusUpdateAll(): Checking the list of bookings and the decision.");
+        List<Long> requestedIds = statusUpdateDto.getBookingIds();
+        if (requestedIds == null || requestedIds.isEmpty() || requestedIds.stream().anyMatch(Objects::isNull)
+                || statusUpdateDto.getApproved() == null) {
+            log.error("statusUpdateAll(): The list of bookings and the decision are required.");
+            throw new BadRequestException("The list of bookings and the decision are required.");
+        }
+        Set<Long> bookingIds = new LinkedHashSet<>(requestedIds);
+        if (bookingIds.size() > MAX_BULK_SIZE) {
+            log.error("statusUpdateAll(): {} bookings requested, at most {} are allowed.", bookingIds.size(), MAX_BULK_SIZE);
+            throw new BadRequestException(String.format("At most %d bookings can be reviewed at once.", MAX_BULK_SIZE));
+        }
+        try {
+            return optimisticLockRetry.execute("booking.bulk-status-update",
+                    () -> updateStatuses(userId, bookingIds, statusUpdateDto.getApproved()));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            log.error("statusUpdateAll(): Some of the bookings overlap bookings approved at the same time.");
+            throw new ConflictException("Some of the bookings overlap bookings approved at the same time, try again.");
+        }
+    }
+
+    /**
+     * An approval racing another approval of the same item can pass {@link #checkNotOverlapped} in both transactions;
+     * on PostgreSQL the exclusion constraint on approved bookings then rejects the second update (SQLState 23P01),
+     * possibly before the item version increment conflicts. That is the same conflict, so it is answered the same way.
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<BookingStatusResultDto> updateStatuses(Long userId, Set<Long> bookingIds, boolean approved) {
+        log.info("statusUpdateAll(): Checking the existence of the owner with id = {}.", userId);
+        if (!userExistenceCache.exists(userId)) {
+            log.error("statusUpdateAll(): User with id = {} does not exist.", userId);
+            throw new BadRequestException(String.format("User with id = %d does not exist.", userId));
+        }
+        log.info("statusUpdateAll(): Loading {} bookings.", bookingIds.size());
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        log.info("statusUpdateAll(): Checking the owner and the status of the bookings.");
+        Map<Long, BookingStatusResultDto> results = new HashMap<>();
+        List<Booking> reviewed = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                log.error("statusUpdateAll(): Booking with id = {} not found.", bookingId);
+                results.put(bookingId, failure(bookingId, HttpStatus.NOT_FOUND,
+                        String.format("Booking with id = %d not found.", bookingId)));
+            } else if (booking.getItem().getOwner().getId() != userId) {
+                log.error("statusUpdateAll(): The user with id = {} is not the owner of the item with id = {}.", userId, booking.getItem().getId());
+                results.put(bookingId, failure(bookingId, HttpStatus.NOT_FOUND,
+                        String.format("The user with id = %d is not the owner of the item with id = %d.", userId, booking.getItem().getId())));
+            } else if (booking.getStatus() == BookingStatus.APPROVED && approved) {
+                log.error("statusUpdateAll(): The booking with id = {} is already approved.", bookingId);
+                results.put(bookingId, failure(bookingId, HttpStatus.BAD_REQUEST,
+                        String.format("Booking with id = %d is already approved.", bookingId)));
+            } else {
+                reviewed.add(booking);
+            }
+        }
+        if (approved) {
+            reviewed = withoutOverlaps(reviewed, results);
+        }
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        log.info("statusUpdateAll(): Setting {} bookings to {}.", reviewed.size(), status);
+        reviewed.forEach(booking -> booking.setStatus(status));
+        bookingRepository.saveAll(reviewed);
+        for (Booking booking : reviewed) {
+            bookingIntervalIndex.update(booking);
+            results.put(booking.getId(), BookingStatusResultDto.builder()
+                    .bookingId(booking.getId())
+                    .code(HttpStatus.OK.value())
+                    .status(status)
+                    .build());
+        }
+
+        log.info("statusUpdateAll(): The bookings were successfully reviewed.");
+        return bookingIds.stream()
+                .map(results::get)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ReturnBookingDto findById(Long userId, Long bookingId) {
         log.info("BookingService: Beginning of method execution findById().");
         log.info("findById(): Checking the existence of the owner with id = {}.", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findById(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findById(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
         log.info("findById(): Checking the existence of the booking with id = {}.", bookingId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> {
@@ -132,7 +298,7 @@ public class BookingServiceImpl implements BookingService {
                 });
 
         log.info("findById(): Checking access to information.");
-        if (!booking.getItem().getOwner().equals(user) && !booking.getBooker().equals(user)) {
+        if (booking.getItem().getOwner().getId() != userId && booking.getBooker().getId() != userId) {
             log.error("findById(): User with id = {} does not have access to booking with id = {}.", userId, bookingId);
             throw new NotFoundException(String.format("User with id = %d does not have access to booking with id = %d.", userId, bookingId));
         }
@@ -145,186 +311,207 @@ public class BookingServiceImpl implements BookingService {
     public List<ReturnBookingDto> findAllByBookerId(Long bookerId, BookingState state, Integer from, Integer size) {
         log.info("BookingService: Beginning of method execution findAllByBookerId().");
         log.info("findAllByBookerId(): Checking the existence of the booker with id = {}.", bookerId);
-        User booker = userRepository.findById(bookerId)
-                .orElseThrow(() -> {
+        if (!userExistenceCache.exists(bookerId)) {
             log.error("findAllByBookerId(): User with id = {} not found", bookerId);
-            return new NotFoundException(String.format("User with id = %d not found", bookerId));
-        });
+            throw new NotFoundException(String.format("User with id = %d not found", bookerId));
+        }
 
         log.info("findAllByBookerId(): Searching bookings for user with id = {} by state = {}.", bookerId, state);
-        switch (state) {
-            case ALL:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByBookerOrderByStartDesc(booker, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
-
-                return bookingRepository.findAllByBookerOrderByStartDesc(booker).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        Specification<Booking> specification = hasBookerId(bookerId).and(inState(state, LocalDateTime.now()));
+        List<ReturnBookingDto> bookings = findAll(specification, from, size);
 
-            case CURRENT:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllCurrentByBooker(booker, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+        log.info("findAllByBookerId(): Searching successfully completed.");
+        return bookings;
+    }
 
-                return bookingRepository.findAllCurrentByBooker(booker).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+    @Override
+    public List<ReturnBookingDto> findAllByOwnerId(Long ownerId, BookingState state, Integer from, Integer size) {
+        log.info("BookingService: Beginning of method execution findAllByOwnerId().");
+        checkOwnerWithItems(ownerId);
 
-            case PAST:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(booker, LocalDateTime.now(), PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+        log.info("findAllByOwnerId(): Searching bookings for user with id = {} by state = {}.", ownerId, state);
+        Specification<Booking> specification = hasItemOwnerId(ownerId).and(inState(state, LocalDateTime.now()));
+        List<ReturnBookingDto> bookings = findAll(specification, from, size);
 
-                return bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(booker, LocalDateTime.now()).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        log.info("findAllByOwnerId(): Searching successfully completed.");
+        return bookings;
+    }
 
-            case FUTURE:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(booker, LocalDateTime.now(), PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+    /**
+     * The unpaged counterpart of {@link #findAllByBookerId}: bookings are read from a database cursor and handed to
+     * {@code bookings} chunk by chunk, so none of the lists is held in memory whole.
+     */
+    @Override
+    public void streamAllByBookerId(Long bookerId, BookingState state, Consumer<ReturnBookingDto> bookings) {
+        log.info("BookingService: Beginning of method execution streamAllByBookerId().");
+        log.info("streamAllByBookerId(): Checking the existence of the booker with id = {}.", bookerId);
+        if (!userExistenceCache.exists(bookerId)) {
+            log.error("streamAllByBookerId(): User with id = {} not found", bookerId);
+            throw new NotFoundException(String.format("User with id = %d not found", bookerId));
+        }
 
-                return bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(booker, LocalDateTime.now()).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        log.info("streamAllByBookerId(): Searching bookings for user with id = {} by state = {}.", bookerId, state);
+        Specification<Booking> specification = hasBookerId(bookerId).and(inState(state, LocalDateTime.now()));
+        long found = streamAll(specification, bookings);
 
-            case WAITING:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+        log.info("streamAllByBookerId(): Searching successfully completed, {} bookings found.", found);
+    }
 
-                return bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+    @Override
+    public void streamAllByOwnerId(Long ownerId, BookingState state, Consumer<ReturnBookingDto> bookings) {
+        log.info("BookingService: Beginning of method execution streamAllByOwnerId().");
+        checkOwnerWithItems(ownerId);
 
-            case REJECTED:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+        log.info("streamAllByOwnerId(): Searching bookings for user with id = {} by state = {}.", ownerId, state);
+        Specification<Booking> specification = hasItemOwnerId(ownerId).and(inState(state, LocalDateTime.now()));
+        long found = streamAll(specification, bookings);
 
-                return bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        log.info("streamAllByOwnerId(): Searching successfully completed, {} bookings found.", found);
+    }
 
-            default:
-                log.error("findAllByBookerId(): Unknown state = {}.", state);
-                throw new BadRequestException(String.format("Unknown state: %s", state));
+    @Override
+    public List<ReturnBookingDto> scrollAllByBookerId(Long bookerId, BookingState state, String cursor, Integer size) {
+        log.info("BookingService: Beginning of method execution scrollAllByBookerId().");
+        BookingCursor bookingCursor = toCursor(cursor, size);
+
+        log.info("scrollAllByBookerId(): Checking the existence of the booker with id = {}.", bookerId);
+        if (!userExistenceCache.exists(bookerId)) {
+            log.error("scrollAllByBookerId(): User with id = {} not found", bookerId);
+            throw new NotFoundException(String.format("User with id = %d not found", bookerId));
         }
+
+        log.info("scrollAllByBookerId(): Searching bookings for user with id = {} by state = {}.", bookerId, state);
+        Specification<Booking> specification = hasBookerId(bookerId).and(inState(state, LocalDateTime.now()));
+        List<ReturnBookingDto> bookings = scrollAll(specification, bookingCursor, size);
+
+        log.info("scrollAllByBookerId(): Searching successfully completed.");
+        return bookings;
     }
 
     @Override
-    public List<ReturnBookingDto> findAllByOwnerId(Long ownerId, BookingState state, Integer from, Integer size) {
-        log.info("BookingService: Beginning of method execution findAllByOwnerId().");
-        log.info("findAllByOwnerId(): Checking the existence of the owner with id = {}.", ownerId);
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> {
-                    log.error("findAllByOwnerId(): User with id = {} not found", ownerId);
-                    return new NotFoundException(String.format("User with id = %d not found", ownerId));
-                });
+    public List<ReturnBookingDto> scrollAllByOwnerId(Long ownerId, BookingState state, String cursor, Integer size) {
+        log.info("BookingService: Beginning of method execution scrollAllByOwnerId().");
+        BookingCursor bookingCursor = toCursor(cursor, size);
+        checkOwnerWithItems(ownerId);
 
-        log.info("findAllByOwnerId(): Checking the existence of items by owner with id = {}.", ownerId);
-        if (itemRepository.findAllByOwner(owner).isEmpty()) {
-            log.error("findAllByOwnerId(): User with id = {} does not own any of the existing items.", ownerId);
-            throw new NotFoundException(String.format("User with id = %d does not own any of the existing items.", ownerId));
-        }
+        log.info("scrollAllByOwnerId(): Searching bookings for user with id = {} by state = {}.", ownerId, state);
+        Specification<Booking> specification = hasItemOwnerId(ownerId).and(inState(state, LocalDateTime.now()));
+        List<ReturnBookingDto> bookings = scrollAll(specification, bookingCursor, size);
 
-        log.info("findAllByOwnerId(): Searching bookings for user with id = {} by state = {}.", ownerId, state);
-        switch (state) {
-            case ALL:
-                log.info("findAllByBookerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByItemOwnerOrderByStartDesc(owner, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
-
-                return bookingRepository.findAllByItemOwnerOrderByStartDesc(owner).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        log.info("scrollAllByOwnerId(): Searching successfully completed.");
+        return bookings;
+    }
 
-            case CURRENT:
-                log.info("findAllByOwnerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllCurrentByOwner(owner, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+    /**
+     * Makes sure no approved booking of the same item overlaps this one. The item's version is bumped on commit, so of
+     * two concurrent approvals for one item only the first commits; the other fails its version check and is retried,
+     * now seeing the first approval. On PostgreSQL the exclusion constraint on {@code bookings} backs this up.
+     */
+    private void checkNotOverlapped(Booking booking) {
+        long itemId = booking.getItem().getId();
+        log.info("checkNotOverlapped(): Claiming the item with id = {} to check for overlapping bookings.", itemId);
+        itemRepository.incrementVersion(booking.getItem());
+        if (bookingRepository.existsOverlapping(itemId, booking.getStart(), booking.getEnd(), BookingStatus.APPROVED, booking.getId())) {
+            log.error("checkNotOverlapped(): Item with id = {} is already booked for the period of booking with id = {}.", itemId, booking.getId());
+            throw new ConflictException(String.format("Item with id = %d is already booked for the period of booking with id = %d.", itemId, booking.getId()));
+        }
+    }
 
-                return bookingRepository.findAllCurrentByOwner(owner).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+    /**
+     * The bulk counterpart of {@link #checkNotOverlapped}: one query fetches the approved bookings of all the items
+     * involved, and the bookings to approve are then checked in order against those and against the ones accepted
+     * before them, so two overlapping bookings of one request cannot both be approved. The rejected ones are reported
+     * as conflicts; the items of the accepted ones have their version bumped on commit.
+     */
+    private List<Booking> withoutOverlaps(List<Booking> bookings, Map<Long, BookingStatusResultDto> results) {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        Map<Long, Item> items = bookings.stream()
+                .map(Booking::getItem)
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+        LocalDateTime start = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime end = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        log.info("withoutOverlaps(): Checking the approved bookings of {} items for overlaps.", items.size());
+        Map<Long, BookingIntervalTree> approvedByItem = new HashMap<>();
+        for (BookingDtoForItem approved : bookingRepository.findOverlappingByItemIds(items.keySet(), BookingStatus.APPROVED, start, end)) {
+            approvedByItem.computeIfAbsent(approved.getItemId(), itemId -> new BookingIntervalTree(List.of()))
+                    .add(new BookingInterval(approved.getId(), approved.getStart(), approved.getEnd(), BookingStatus.APPROVED));
+        }
 
-            case PAST:
-                log.info("findAllByOwnerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(owner, LocalDateTime.now(), PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+        List<Booking> approvable = new ArrayList<>();
+        Map<Long, Item> claimedItems = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            BookingIntervalTree approved = approvedByItem.computeIfAbsent(itemId, id -> new BookingIntervalTree(List.of()));
+            if (approved.hasOverlap(booking.getStart(), booking.getEnd())) {
+                log.error("withoutOverlaps(): Item with id = {} is already booked for the period of booking with id = {}.", itemId, booking.getId());
+                results.put(booking.getId(), failure(booking.getId(), HttpStatus.CONFLICT,
+                        String.format("Item with id = %d is already booked for the period of booking with id = %d.", itemId, booking.getId())));
+            } else {
+                approved.add(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), BookingStatus.APPROVED));
+                approvable.add(booking);
+                claimedItems.putIfAbsent(itemId, booking.getItem());
+            }
+        }
+        claimedItems.values().forEach(itemRepository::incrementVersion);
+        return approvable;
+    }
 
-                return bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(owner, LocalDateTime.now()).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+    private BookingStatusResultDto failure(long bookingId, HttpStatus code, String error) {
+        return BookingStatusResultDto.builder()
+                .bookingId(bookingId)
+                .code(code.value())
+                .error(error)
+                .build();
+    }
 
-            case FUTURE:
-                log.info("findAllByOwnerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(owner, LocalDateTime.now(), PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+    private void checkOwnerWithItems(Long ownerId) {
+        log.info("checkOwnerWithItems(): Checking the existence of the owner with id = {}.", ownerId);
+        if (!userExistenceCache.exists(ownerId)) {
+            log.error("checkOwnerWithItems(): User with id = {} not found", ownerId);
+            throw new NotFoundException(String.format("User with id = %d not found", ownerId));
+        }
 
-                return bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(owner, LocalDateTime.now()).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+        log.info("checkOwnerWithItems(): Checking the existence of items by owner with id = {}.", ownerId);
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            log.error("checkOwnerWithItems(): User with id = {} does not own any of the existing items.", ownerId);
+            throw new NotFoundException(String.format("User with id = %d does not own any of the existing items.", ownerId));
+        }
+    }
 
-            case WAITING:
-                log.info("findAllByOwnerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+    private List<ReturnBookingDto> findAll(Specification<Booking> specification, Integer from, Integer size) {
+        List<BookingDtoForList> bookings = isPaginationEnabled(from, size)
+                ? bookingRepository.findAllForList(specification, PageRequest.of(from / size, size, BOOKING_ORDER))
+                : bookingRepository.findAllForList(specification, BOOKING_ORDER);
+        return bookings.stream()
+                .map(bookingMapper::toReturnBookingDto)
+                .collect(Collectors.toList());
+    }
 
-                return bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING).stream()
+    private long streamAll(Specification<Booking> specification, Consumer<ReturnBookingDto> bookings) {
+        return chunkedStreamReader.read(bookingRepository.streamAllForList(specification, BOOKING_ORDER),
+                chunk -> chunk.stream()
                         .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                log.info("findAllByOwnerId(): Searching successfully completed.");
-                if (isPaginationEnabled(from, size)) {
-                    return bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED, PageRequest.of(from / size, size)).stream()
-                            .map(bookingMapper::toReturnBookingDto)
-                            .collect(Collectors.toList());
-                }
+                        .forEach(bookings));
+    }
 
-                return bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED).stream()
-                        .map(bookingMapper::toReturnBookingDto)
-                        .collect(Collectors.toList());
+    private List<ReturnBookingDto> scrollAll(Specification<Booking> specification, BookingCursor cursor, int size) {
+        Specification<Booking> page = cursor == null ? specification : specification.and(after(cursor.getStart(), cursor.getId()));
+        return bookingRepository.findAllForList(page, PageRequest.of(0, size, BOOKING_ORDER)).stream()
+                .map(bookingMapper::toReturnBookingDto)
+                .collect(Collectors.toList());
+    }
 
-            default:
-                log.error("findAllByOwnerId(): Unknown state = {}.", state);
-                throw new BadRequestException(String.format("Unknown state: %s", state));
+    private BookingCursor toCursor(String cursor, Integer size) {
+        if (size == null || size < 1) {
+            log.error("toCursor(): Invalid request parameters.");
+            throw new BadRequestException("Invalid request parameters.");
+        }
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
+        return BookingCursor.decode(cursor);
     }
 
     private Boolean isPaginationEnabled(Integer from, Integer size) {
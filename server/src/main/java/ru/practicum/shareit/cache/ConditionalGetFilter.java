@@ -0,0 +1,35 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.InputStream;
+
+/**
+ * Adds an ETag to successful GET responses and answers a matching {@code If-None-Match} with 304. Responses
+ * that get an ETag are also marked private and vary by {@code X-Sharer-User-Id}, since item and request views
+ * depend on who asks; this lets the gateway keep one cache entry per user.
+ */
+public class ConditionalGetFilter extends ShallowEtagHeaderFilter {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final String cacheControl;
+
+    public ConditionalGetFilter(CacheControl cacheControl) {
+        this.cacheControl = cacheControl.getHeaderValue();
+    }
+
+    @Override
+    protected boolean isEligibleForEtag(HttpServletRequest request, HttpServletResponse response,
+                                        int responseStatusCode, InputStream inputStream) {
+        if (!super.isEligibleForEtag(request, response, responseStatusCode, inputStream)) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, USER_HEADER);
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+/**
+ * Evicts second-level cache entries that Hibernate cannot invalidate by itself. Deleting a user removes their
+ * items and requests through {@code ON DELETE CASCADE} in the database, which Hibernate never sees.
+ * Does nothing when the second-level cache is disabled.
+ * <p>
+ * Inside a transaction the regions are evicted once more after it commits: until then other transactions still
+ * read the cascaded rows and may put them back, where they would stay until their write TTL expires.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictUserCascade(long userId) {
+        log.info("evictUserCascade(): Evicting items and requests cascaded from user with id = {}.", userId);
+        evictCascadedRegions();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    log.info("evictUserCascade(): Evicting items and requests of user with id = {} after commit.", userId);
+                    evictCascadedRegions();
+                }
+            });
+        }
+    }
+
+    private void evictCascadedRegions() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
+    }
+}
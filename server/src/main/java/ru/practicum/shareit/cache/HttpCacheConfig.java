@@ -0,0 +1,34 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Conditional GET support for the item, user and request read endpoints. With the default max age of zero
+ * every cached copy is revalidated, so clients only save the response body; a positive max age lets the
+ * gateway answer repeated reads on its own at the cost of that much staleness.
+ */
+@Slf4j
+@Configuration
+public class HttpCacheConfig {
+    @Bean
+    public FilterRegistrationBean<ConditionalGetFilter> conditionalGetFilter(
+            @Value("${shareit.http.cache.max-age:0s}") Duration maxAge) {
+        // max-age=0 with must-revalidate rather than no-cache: Apache's client cache does not store no-cache responses.
+        CacheControl cacheControl = maxAge.isZero()
+                ? CacheControl.maxAge(maxAge).mustRevalidate().cachePrivate()
+                : CacheControl.maxAge(maxAge).cachePrivate();
+
+        FilterRegistrationBean<ConditionalGetFilter> registration =
+                new FilterRegistrationBean<>(new ConditionalGetFilter(cacheControl));
+        registration.addUrlPatterns("/items", "/items/*", "/users", "/users/*", "/requests", "/requests/*");
+        log.info("conditionalGetFilter(): ETags enabled with Cache-Control: {}.", cacheControl.getHeaderValue());
+        return registration;
+    }
+}
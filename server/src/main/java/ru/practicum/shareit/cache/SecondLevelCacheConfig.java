@@ -0,0 +1,86 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Turns on the Hibernate second-level and query caches, backed by local Caffeine regions, when
+ * {@code shareit.cache.l2.enabled} is set. Each cached entity gets its own bounded region with a write TTL; hit and
+ * miss counts are published through the actuator as {@code hibernate.second.level.cache.requests} and
+ * {@code hibernate.cache.query.requests}.
+ * <p>
+ * Otherwise both caches stay off as application.properties sets them: with hibernate-jcache on the classpath
+ * Hibernate would enable the second-level cache by itself and create unbounded regions for the {@code @Cache}
+ * entities. Setting them there rather than in a bean keeps them off in test slices such as {@code @DataJpaTest} too.
+ */
+@Slf4j
+@Configuration
+public class SecondLevelCacheConfig {
+    static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Item.class, ItemRequest.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.cache.l2.enabled", havingValue = "true")
+    public CacheManager secondLevelCacheManager(@Value("${shareit.cache.l2.maximum-size:10000}") long maximumSize,
+                                                @Value("${shareit.cache.l2.expire-after-write:10m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-l2"), getClass().getClassLoader());
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            createRegion(cacheManager, entity.getName(), regionConfiguration(maximumSize, expireAfterWrite));
+        }
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(maximumSize, expireAfterWrite));
+        // Update timestamps hold one entry per table and must outlive every cached query result.
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false).setStatisticsEnabled(true));
+
+        log.info("secondLevelCacheManager(): Second-level cache regions created for {}.", CACHED_ENTITIES);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.cache.l2.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(name) == null) {
+            cacheManager.createCache(name, configuration);
+        }
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize, Duration expireAfterWrite) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setStatisticsEnabled(true)
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+    }
+}
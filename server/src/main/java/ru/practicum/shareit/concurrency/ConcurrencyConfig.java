@@ -0,0 +1,40 @@
+package ru.practicum.shareit.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Request admission and pinning diagnostics for running on virtual threads ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * Sizing: the Hikari pool ({@code spring.datasource.hikari.maximum-pool-size}) bounds how many requests touch the
+ * database at once, and {@code shareit.concurrency.max-requests} bounds how many are admitted at all. Keep the latter
+ * a small multiple of the former so admitted requests wait briefly for a connection instead of timing out on it.
+ */
+@Configuration
+public class ConcurrencyConfig {
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyLimitFilter> requestConcurrencyLimitFilter(
+            @Value("${shareit.concurrency.max-requests:200}") int maxRequests,
+            @Value("${shareit.concurrency.queue-timeout:2s}") Duration queueTimeout,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<RequestConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new RequestConcurrencyLimitFilter(maxRequests, queueTimeout, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.virtual-threads.pinned-monitor.enabled", havingValue = "true")
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+                                                   @Value("${shareit.virtual-threads.pinned-monitor.threshold:20ms}") Duration threshold) {
+        return new PinnedThreadMonitor(meterRegistry, threshold);
+    }
+}
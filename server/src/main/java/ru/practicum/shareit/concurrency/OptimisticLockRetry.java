@@ -0,0 +1,83 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in its own transaction and runs it again, in a fresh transaction, when it loses an optimistic
+ * locking race ({@code @Version} check failed on flush or commit). Each retry re-reads the current state, so the
+ * action's own validation decides whether the change still applies. Attempts are bounded and spaced by a short
+ * jittered back-off; once they are exhausted the last {@link OptimisticLockingFailureException} is rethrown.
+ * <p>
+ * Conflicts are counted in {@code shareit.optimistic.lock.conflicts}, tagged with the operation and whether the
+ * conflict was {@code retried} or {@code exhausted} the attempts.
+ * <p>
+ * Callers must not already be inside a transaction, otherwise every attempt would join the same doomed one.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+    static final String CONFLICTS_METER = "shareit.optimistic.lock.conflicts";
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${shareit.optimistic-lock.max-attempts:3}") int maxAttempts,
+                               @Value("${shareit.optimistic-lock.backoff:20ms}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    conflicts(operation, "exhausted").increment();
+                    log.error("execute(): {} still conflicts after {} attempts.", operation, attempt);
+                    throw e;
+                }
+                conflicts(operation, "retried").increment();
+                log.warn("execute(): {} lost an optimistic lock race on attempt {}, retrying.", operation, attempt);
+                pause(attempt, e);
+            }
+        }
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return Counter.builder(CONFLICTS_METER)
+                .description("Optimistic locking conflicts")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        long millis = backoff.toMillis() * attempt;
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event in-process. Each time a virtual thread stays pinned to its
+ * carrier longer than the threshold (typically blocking inside a {@code synchronized} block, e.g. in a JDBC driver
+ * under a {@code @Transactional} method) the duration is recorded in the {@code shareit.virtual.threads.pinned}
+ * timer and the top of the stack is logged.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements DisposableBean {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream recordingStream;
+    private final Timer pinnedTimer;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.pinnedTimer = Timer.builder("shareit.virtual.threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("PinnedThreadMonitor(): Watching for virtual threads pinned longer than {}.", threshold);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        String stack = event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+                .dropWhile(PinnedThreadMonitor::isJdkFrame)
+                .limit(LOGGED_FRAMES)
+                .map(PinnedThreadMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("onPinned(): Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), stack);
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+}
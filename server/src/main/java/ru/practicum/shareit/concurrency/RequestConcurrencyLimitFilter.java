@@ -0,0 +1,73 @@
+package ru.practicum.shareit.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most {@code maxRequests} requests at a time and lets the rest wait up to {@code queueTimeout} for a
+ * slot before answering 503. On virtual threads Tomcat no longer caps concurrency, so without this limit every
+ * incoming request would end up queued on the Hikari pool, holding memory until its connection timeout expires.
+ * Actuator endpoints bypass the limit, so health checks and metrics scrapes still answer while the server is busy.
+ */
+@Slf4j
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String ACTUATOR_PATH = "/actuator";
+    private final Semaphore permits;
+    private final long queueTimeoutNanos;
+    private final ObjectMapper objectMapper;
+
+    public RequestConcurrencyLimitFilter(int maxRequests, Duration queueTimeout, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxRequests, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(ACTUATOR_PATH) || path.startsWith(ACTUATOR_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("doFilterInternal(): Rejecting {} {}: no request slot became free in time.",
+                    request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Server is busy, try again later."));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -1,12 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ReturnItemDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.stream.JsonStreamWriter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,6 +25,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -21,6 +34,23 @@ public class ItemController {
         return itemService.create(userId, itemDto);
     }
 
+    /**
+     * Imports items from a JSON array or newline-delimited JSON of any size and answers with one NDJSON result per
+     * row, written as the rows are saved.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            InputStream body,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        JsonStreamWriter results = JsonStreamWriter.ndjson(objectMapper, request, response);
+        itemImporter.importItems(userId, body, batch -> {
+            batch.forEach(results::write);
+            results.flush();
+        });
+        results.close();
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") long userId,
                           @PathVariable long itemId,
@@ -34,13 +64,26 @@ public class ItemController {
         return itemService.findById(userId, itemId);
     }
 
-    @GetMapping
+    @GetMapping(params = {"from", "size"})
     public List<ReturnItemDto> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(required = false) Integer from,
-                                              @RequestParam(required = false) Integer size) {
+                                              @RequestParam Integer from,
+                                              @RequestParam Integer size) {
         return itemService.findByOwner(userId, from, size);
     }
 
+    /**
+     * Without paging the owner's items are streamed as a JSON array, or as newline-delimited JSON when the client
+     * accepts it.
+     */
+    @GetMapping
+    public void streamAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) {
+        JsonStreamWriter items = JsonStreamWriter.forAccept(objectMapper, request, response);
+        itemService.streamByOwner(userId, items::write);
+        items.close();
+    }
+
     @GetMapping("/search")
     public List<ItemDto> search(@RequestHeader("X-Sharer-User-Id") long userId,
                                 @RequestParam String text,
@@ -56,4 +99,12 @@ public class ItemController {
         return itemService.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto findAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @PathVariable long itemId,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.findAvailability(userId, itemId, from, to);
+    }
+
 }
\ No newline at end of file
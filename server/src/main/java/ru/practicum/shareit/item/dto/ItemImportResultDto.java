@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The outcome of one row of an item import: its 1-based position in the input, the HTTP status a single create would
+ * have answered with, the id of the new item when it was added and the reason when it was not.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResultDto {
+    private long row;
+    private int code;
+    private Long itemId;
+    private String error;
+}
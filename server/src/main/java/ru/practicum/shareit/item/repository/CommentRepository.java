@@ -1,11 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     Collection<Comment> findByItem(Item item);
+
+    @Query("select c " +
+            "from Comment c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1 " +
+            "order by c.id")
+    Collection<Comment> findAllByItemIds(Collection<Long> itemIds);
 }
@@ -1,19 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.model.User;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    Collection<Item> findAllByOwner(User owner);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemVersionRepository {
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findWithOwnerById(long id);
 
-    Page<Item> findAllByOwner(User owner, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    Collection<Item> findAllByOwnerId(long ownerId);
+
+    @EntityGraph(attributePaths = "owner")
+    Page<Item> findAllByOwnerId(long ownerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    Stream<Item> streamAllByOwnerIdOrderById(long ownerId);
+
+    boolean existsByOwnerId(long ownerId);
 
     @Query("select i " +
             "from Item i " +
@@ -29,5 +44,10 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "or lower(i.description) like (lower (concat ('%',?1, '%'))))")
     Page<Item> findAllByNameOrDescription(String text, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Collection<Item> findAllByRequest(ItemRequest request);
+
+    Collection<Item> findAllByRequestIn(Collection<ItemRequest> requests);
+
+    Collection<Item> findAllByAvailableTrue();
 }
\ No newline at end of file
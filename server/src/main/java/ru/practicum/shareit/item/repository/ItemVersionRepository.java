@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemVersionRepository {
+    /**
+     * Bumps the version of a managed item when the current transaction commits, even though the item itself has not
+     * changed. Of two transactions doing this for the same item, the one committing second fails with an optimistic
+     * locking exception, which lets changes to an item's bookings be ordered without locking the item row.
+     */
+    void incrementVersion(Item item);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import ru.practicum.shareit.item.model.Item;
+
+class ItemVersionRepositoryImpl implements ItemVersionRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void incrementVersion(Item item) {
+        entityManager.lock(item, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+}
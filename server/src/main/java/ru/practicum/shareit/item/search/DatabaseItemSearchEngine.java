@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searches items with a like query in the database. On PostgreSQL the query is served by the trigram
+ * indexes from the vendor migrations, so there is nothing to maintain on the application side.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (pageable.isPaged()) {
+            return itemRepository.findAllByNameOrDescription(text, pageable).getContent();
+        }
+        return new ArrayList<>(itemRepository.findAllByNameOrDescription(text));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
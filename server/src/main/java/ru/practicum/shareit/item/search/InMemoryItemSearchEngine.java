@@ -0,0 +1,211 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a trigram inverted index of available items in memory, which answers substring queries without
+ * scanning the items table. Matches are re-read from the database by id and checked again, so items
+ * changed or deleted behind the index's back are dropped instead of returned; pages are cut only from
+ * the matches that pass that check. Changes reach the index once their transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<Long, String[]> documents = new TreeMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("rebuild(): Building the in-memory search index.");
+        List<Item> items = new ArrayList<>(itemRepository.findAllByAvailableTrue());
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("rebuild(): {} items indexed.", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = normalize(text);
+        List<Long> ids = findIds(query);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE;
+        // The first batch covers the requested page; stale matches only cost further batches of the same size.
+        int batchSize = (int) Math.min(ids.size(), skip + Math.min(limit, ids.size()));
+        List<Item> page = new ArrayList<>();
+        for (int from = 0; from < ids.size() && page.size() < limit; from += batchSize) {
+            List<Item> matched = itemRepository.findAllById(ids.subList(from, Math.min(from + batchSize, ids.size()))).stream()
+                    .filter(item -> item.isAvailable() && matches(item, query))
+                    .sorted(Comparator.comparingLong(Item::getId))
+                    .collect(Collectors.toList());
+            for (Item item : matched) {
+                if (skip > 0) {
+                    skip--;
+                } else if (page.size() < limit) {
+                    page.add(item);
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Indexes the item as it is now once the current transaction commits, or right away outside a transaction,
+     * so a rolled back change never becomes searchable.
+     */
+    @Override
+    public void index(Item item) {
+        Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.isAvailable())
+                .build();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(snapshot.getId());
+                if (snapshot.isAvailable()) {
+                    add(snapshot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private List<Long> findIds(String query) {
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                return documents.entrySet().stream()
+                        .filter(document -> contains(document.getValue(), query))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList());
+            }
+
+            List<Set<Long>> candidates = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                candidates.add(ids);
+            }
+            candidates.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> result = new TreeSet<>(candidates.get(0));
+            for (int i = 1; i < candidates.size() && !result.isEmpty(); i++) {
+                result.retainAll(candidates.get(i));
+            }
+            result.removeIf(id -> !contains(documents.get(id), query));
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void add(Item item) {
+        String[] fields = {normalize(item.getName()), normalize(item.getDescription())};
+        documents.put(item.getId(), fields);
+        for (String field : fields) {
+            for (String gram : grams(field)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+            }
+        }
+    }
+
+    private void remove(long itemId) {
+        String[] fields = documents.remove(itemId);
+        if (fields == null) {
+            return;
+        }
+        for (String field : fields) {
+            for (String gram : grams(field)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null && ids.remove(itemId) && ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(Item item, String query) {
+        return contains(new String[]{normalize(item.getName()), normalize(item.getDescription())}, query);
+    }
+
+    private static boolean contains(String[] fields, String query) {
+        for (String field : fields) {
+            if (field.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
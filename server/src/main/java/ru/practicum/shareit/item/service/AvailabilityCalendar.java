@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Turns the bookings of an item into a free/busy calendar for a window. The window is cut into the longest stretches
+ * in which the item is either booked by an approved booking, only asked for by waiting bookings, or free; stretches
+ * of the same kind that touch are merged, so overlapping or back-to-back bookings come out as one busy interval.
+ */
+final class AvailabilityCalendar {
+    private AvailabilityCalendar() {
+    }
+
+    static ItemAvailabilityDto of(long itemId, LocalDateTime from, LocalDateTime to, Collection<BookingInterval> bookings) {
+        // For every moment where coverage changes: how many approved and waiting bookings start (+) or end (-) there.
+        TreeMap<LocalDateTime, int[]> changes = new TreeMap<>();
+        changes.put(from, new int[2]);
+        changes.put(to, new int[2]);
+        for (BookingInterval booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            if (start.isBefore(end)) {
+                int kind = booking.getStatus() == BookingStatus.APPROVED ? 0 : 1;
+                changes.computeIfAbsent(start, moment -> new int[2])[kind]++;
+                changes.computeIfAbsent(end, moment -> new int[2])[kind]--;
+            }
+        }
+
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        int approved = 0;
+        int waiting = 0;
+        Map.Entry<LocalDateTime, int[]> change = changes.firstEntry();
+        while (change.getKey().isBefore(to)) {
+            approved += change.getValue()[0];
+            waiting += change.getValue()[1];
+            Map.Entry<LocalDateTime, int[]> next = changes.higherEntry(change.getKey());
+            if (approved > 0) {
+                append(busy, change.getKey(), next.getKey(), BookingStatus.APPROVED);
+            } else if (waiting > 0) {
+                append(busy, change.getKey(), next.getKey(), BookingStatus.WAITING);
+            } else {
+                append(free, change.getKey(), next.getKey(), null);
+            }
+            change = next;
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
+    private static void append(List<AvailabilityIntervalDto> intervals, LocalDateTime start, LocalDateTime end,
+                               BookingStatus status) {
+        AvailabilityIntervalDto last = intervals.isEmpty() ? null : intervals.get(intervals.size() - 1);
+        if (last != null && last.getEnd().equals(start) && last.getStatus() == status) {
+            last.setEnd(end);
+        } else {
+            intervals.add(new AvailabilityIntervalDto(start, end, status));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports the items of one owner from a JSON array or newline-delimited JSON of {@link ItemDto}s of any size. Rows are
+ * read one at a time from the stream and checked on their own; valid rows are collected into batches of
+ * {@code batchSize}, and each batch is inserted in its own transaction, so memory use depends on the batch size only,
+ * not on the input. The outcome of every row is handed to {@code results} batch by batch, in input order.
+ * <p>
+ * A row that does not fit an item (a field of the wrong type, say) is reported and skipped. Input that is not JSON
+ * at all ends the import after the rows read so far, since nothing after it can be trusted. A batch that fails to
+ * commit is rolled back and the rows it would have added are reported as failed.
+ */
+@Slf4j
+@Service
+public class ItemImporter {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemMapper itemMapper;
+    private final ObjectReader itemReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository,
+                        ItemRequestRepository itemRequestRepository,
+                        UserRepository userRepository,
+                        UserExistenceCache userExistenceCache,
+                        ItemSearchEngine itemSearchEngine,
+                        ItemMapper itemMapper,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${shareit.item.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userRepository = userRepository;
+        this.userExistenceCache = userExistenceCache;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemMapper = itemMapper;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public void importItems(long userId, InputStream json, Consumer<List<ItemImportResultDto>> results) throws IOException {
+        log.info("ItemImporter: Beginning of method execution importItems().");
+        log.info("importItems(): Checking the existence of a user with id = {} importing the items.", userId);
+        if (!userExistenceCache.exists(userId)) {
+            log.error("importItems(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+        long read = 0;
+        long imported = 0;
+        try (MappingIterator<ItemDto> rows = itemReader.readValues(json)) {
+            while (true) {
+                rowNumber++;
+                ImportRow row = new ImportRow(rowNumber);
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row.itemDto = rows.nextValue();
+                    row.error = validate(row.itemDto);
+                    row.code = row.error == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+                } catch (JsonParseException e) {
+                    log.error("importItems(): Row {} is not valid JSON, the import stops here.", rowNumber);
+                    batch.add(row.fail(HttpStatus.BAD_REQUEST, "Malformed JSON: " + e.getOriginalMessage()));
+                    read++;
+                    break;
+                } catch (JsonMappingException e) {
+                    log.error("importItems(): Row {} does not describe an item.", rowNumber);
+                    row.fail(HttpStatus.BAD_REQUEST, "The row does not describe an item: " + e.getOriginalMessage());
+                }
+                batch.add(row);
+                read++;
+                if (batch.size() == batchSize) {
+                    imported += save(userId, batch, results);
+                }
+            }
+        }
+        imported += save(userId, batch, results);
+
+        log.info("importItems(): {} of {} rows imported.", imported, read);
+    }
+
+    private long save(long userId, List<ImportRow> batch, Consumer<List<ItemImportResultDto>> results) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<ImportRow> valid = batch.stream()
+                .filter(row -> row.code == HttpStatus.OK)
+                .collect(Collectors.toList());
+        try {
+            if (!valid.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> insert(userId, valid));
+            }
+        } catch (DataAccessException e) {
+            log.error("importItems(): The batch of rows {}-{} could not be saved.", batch.get(0).number,
+                    batch.get(batch.size() - 1).number, e);
+            valid.stream()
+                    .filter(row -> row.code == HttpStatus.OK)
+                    .forEach(row -> row.fail(HttpStatus.INTERNAL_SERVER_ERROR, "The row could not be saved, try again."));
+        }
+        long saved = valid.stream().filter(row -> row.code == HttpStatus.OK).count();
+        results.accept(batch.stream().map(ImportRow::toResult).collect(Collectors.toList()));
+        batch.clear();
+        return saved;
+    }
+
+    private void insert(long userId, List<ImportRow> rows) {
+        User owner = userRepository.getReferenceById(userId);
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ImportRow> inserted = new ArrayList<>();
+        for (ImportRow row : rows) {
+            Long requestId = row.itemDto.getRequestId();
+            if (requestId != null && !itemRequests.containsKey(requestId)) {
+                row.fail(HttpStatus.NOT_FOUND, String.format("ItemRequest with id = %d not found", requestId));
+                continue;
+            }
+            row.item = itemMapper.fromItemDto(owner, row.itemDto, requestId != null ? itemRequests.get(requestId) : null);
+            row.item.setId(0);
+            inserted.add(row);
+        }
+        itemRepository.saveAll(inserted.stream().map(row -> row.item).collect(Collectors.toList()));
+        inserted.forEach(row -> itemSearchEngine.index(row.item));
+    }
+
+    private static String validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Name must not be blank.";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Description must not be blank.";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Available must be set.";
+        }
+        return null;
+    }
+
+    private static final class ImportRow {
+        private final long number;
+        private ItemDto itemDto;
+        private Item item;
+        private HttpStatus code;
+        private String error;
+
+        private ImportRow(long number) {
+            this.number = number;
+        }
+
+        private ImportRow fail(HttpStatus code, String error) {
+            this.code = code;
+            this.error = error;
+            return this;
+        }
+
+        private ItemImportResultDto toResult() {
+            return ItemImportResultDto.builder()
+                    .row(number)
+                    .code(code.value())
+                    .itemId(code == HttpStatus.OK ? item.getId() : null)
+                    .error(error)
+                    .build();
+        }
+    }
+}
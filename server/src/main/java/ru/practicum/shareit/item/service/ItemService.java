@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ReturnItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(long userId, ItemDto itemDto);
@@ -15,7 +18,11 @@ public interface ItemService {
 
     List<ReturnItemDto> findByOwner(long userId, Integer from, Integer size);
 
+    void streamByOwner(long userId, Consumer<ReturnItemDto> items);
+
     List<ItemDto> search(long userId, String text, Integer from, Integer size);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto findAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
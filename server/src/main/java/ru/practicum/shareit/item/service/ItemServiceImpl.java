@@ -3,17 +3,18 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.exception.exception.ForbiddenException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ReturnItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -22,14 +23,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,25 +46,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Duration DEFAULT_AVAILABILITY_WINDOW = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_WINDOW = Duration.ofDays(366);
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
+    private final ChunkedStreamReader chunkedStreamReader;
 
     @Override
     @Transactional
     public ItemDto create(long userId, ItemDto itemDto) {
         log.info("ItemService: Beginning of method execution create().");
         log.info("create(): Checking the existence of a user with id = {} creating the item.", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("create(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("create(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+        User user = userRepository.getReferenceById(userId);
 
         log.info("create(): Checking the existence of a item request.");
         ItemRequest itemRequest = (itemDto.getRequestId() != null) ? itemRequestRepository.findById(itemDto.getRequestId())
@@ -66,6 +80,7 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("crate(): Add the item to the database.");
         Item item = itemRepository.save(itemMapper.fromItemDto(user, itemDto, itemRequest));
+        itemSearchEngine.index(item);
 
         log.info("crate(): Item with id = {} successfully added to database.", item.getId());
 
@@ -102,6 +117,7 @@ public class ItemServiceImpl implements ItemService {
             }
 
             Item updatedItem = itemRepository.save(existingItem);
+            itemSearchEngine.index(updatedItem);
 
             log.info("update(): Item with id = {} successfully updated in database.", updatedItem.getId());
             return itemMapper.toItemDto(updatedItem);
@@ -117,14 +133,13 @@ public class ItemServiceImpl implements ItemService {
     public ReturnItemDto findById(long userId, long itemId) {
         log.info("ItemService: Beginning of method execution findById().");
         log.info("findById(): Checking the existence of a user with id = {}.", userId);
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findById(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findById(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
 
         log.info("findById(): Searching item with id = {}.", itemId);
-        Item item = itemRepository.findById(itemId)
+        Item item = itemRepository.findWithOwnerById(itemId)
                 .orElseThrow(() -> {
                     log.error("findById(): Item with id = {} not found", itemId);
                     return new NotFoundException(String.format("Item with id = %d not found", itemId));
@@ -136,61 +151,68 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
 
         log.info("findById(): Checking whether the user with id = {} is the owner of the item with id = {}.", userId, itemId);
-        if (!item.getOwner().equals(owner)) {
+        if (item.getOwner().getId() != userId) {
             log.info("findById(): The user is not the owner of the item with id = {}.", itemId);
             return itemMapper.toReturnItemDto(item, null, null, comments);
         }
 
         log.info("findById(): Searching last booking and next booking for item with id = {}.", itemId);
-        LocalDateTime now = LocalDateTime.now();
-
-        BookingDtoForItem lastBooking = getLastBooking(item, now);
-        BookingDtoForItem nextBooking = getNextBooking(item, now);
+        Map<Long, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Long, BookingDtoForItem> nextBookings = new HashMap<>();
+        collectLastAndNextBookings(List.of(itemId), lastBookings, nextBookings);
 
         log.info("findById(): Search for item with id = {} successful completed.", itemId);
-        return itemMapper.toReturnItemDto(item, lastBooking, nextBooking, comments);
+        return itemMapper.toReturnItemDto(item, lastBookings.get(itemId), nextBookings.get(itemId), comments);
     }
 
     @Override
     public List<ReturnItemDto> findByOwner(long userId, Integer from, Integer size) {
         log.info("ItemService: Beginning of method execution findByOwner()");
         log.info("findByOwner(): Checking the existence of a user with id = {}.", userId);
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findByOwner(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findByOwner(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
 
         log.info("findByOwner(): Searching items by owner.");
         List<Item> itemsByOwner = new ArrayList<>();
 
         if (isPaginationEnabled(from, size)) {
-            itemsByOwner.addAll(itemRepository.findAllByOwner(owner, PageRequest.of(from / size, size)).getContent());
+            itemsByOwner.addAll(itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size)).getContent());
         } else {
-            itemsByOwner.addAll(itemRepository.findAllByOwner(owner));
+            itemsByOwner.addAll(itemRepository.findAllByOwnerId(userId));
         }
 
-        log.info("findByOwner(): Searching last booking and next booking for items.");
-        List<ReturnItemDto> itemsWithBookingDto = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        for (Item item : itemsByOwner) {
-            BookingDtoForItem lastBooking = getLastBooking(item, now);
-            BookingDtoForItem nextBooking = getNextBooking(item, now);
-
-            log.info("findByOwner(): Searching comments for item with id = {}.", item.getId());
-            List<CommentDto> comments = commentRepository.findByItem(item).stream()
-                    .map(commentMapper::toCommentDto)
-                    .collect(Collectors.toList());
-
-            itemsWithBookingDto.add(itemMapper.toReturnItemDto(item, lastBooking, nextBooking, comments));
-            log.info("findByOwner(): Item with id ={} successful add in list.", item.getId());
+        if (itemsByOwner.isEmpty()) {
+            log.info("findByOwner(): The user with id = {} has no items.", userId);
+            return List.of();
         }
+        List<ReturnItemDto> itemsWithBookingDto = toReturnItemDtos(itemsByOwner);
 
         log.info("findByOwner(): Search for items by owner successful completed.");
         return itemsWithBookingDto;
     }
 
+    /**
+     * The unpaged counterpart of {@link #findByOwner}: items are read from a database cursor in chunks, and the
+     * bookings and comments of each chunk are loaded together before its items are handed to {@code items}.
+     */
+    @Override
+    public void streamByOwner(long userId, Consumer<ReturnItemDto> items) {
+        log.info("ItemService: Beginning of method execution streamByOwner()");
+        log.info("streamByOwner(): Checking the existence of a user with id = {}.", userId);
+        if (!userExistenceCache.exists(userId)) {
+            log.error("streamByOwner(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+
+        log.info("streamByOwner(): Searching items by owner.");
+        long found = chunkedStreamReader.read(itemRepository.streamAllByOwnerIdOrderById(userId),
+                chunk -> toReturnItemDtos(chunk).forEach(items));
+
+        log.info("streamByOwner(): Search for items by owner successful completed, {} items found.", found);
+    }
+
     @Override
     public List<ItemDto> search(long userId, String text, Integer from, Integer size) {
         log.info("ItemService: Beginning of method execution search()");
@@ -200,24 +222,17 @@ public class ItemServiceImpl implements ItemService {
             return List.of();
         }
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("search(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
-
-        List<ItemDto> searchedItems = new ArrayList<>();
+        log.info("search(): Checking the existence of a user with id = {}.", userId);
+        if (!userExistenceCache.exists(userId)) {
+            log.error("search(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
 
         log.info("search(): Searching items by text parameter.");
-        if (isPaginationEnabled(from, size)) {
-            searchedItems.addAll(itemRepository.findAllByNameOrDescription(text, PageRequest.of(from / size, size)).stream()
-                    .map(itemMapper::toItemDto)
-                    .collect(Collectors.toList()));
-        } else {
-            searchedItems.addAll(itemRepository.findAllByNameOrDescription(text).stream()
-                    .map(itemMapper::toItemDto)
-                    .collect(Collectors.toList()));
-        }
+        Pageable pageable = isPaginationEnabled(from, size) ? PageRequest.of(from / size, size) : Pageable.unpaged();
+        List<ItemDto> searchedItems = itemSearchEngine.search(text, pageable).stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
 
         log.info("search(): Search for items by text parameter completed successful.");
         return searchedItems;
@@ -254,14 +269,70 @@ public class ItemServiceImpl implements ItemService {
         return commentMapper.toCommentDto(newComment);
     }
 
-    private BookingDtoForItem getLastBooking(Item item, LocalDateTime now) {
-        Booking sortedEndBooking = bookingRepository.findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(item, now, BookingStatus.APPROVED).orElse(null);
-        return (sortedEndBooking != null) ? bookingMapper.toBookingDtoForItem(sortedEndBooking) : null;
+    @Override
+    public ItemAvailabilityDto findAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("ItemService: Beginning of method execution findAvailability().");
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.now();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plus(DEFAULT_AVAILABILITY_WINDOW);
+        log.info("findAvailability(): Checking the period from {} to {}.", windowStart, windowEnd);
+        if (!windowStart.isBefore(windowEnd) || windowStart.plus(MAX_AVAILABILITY_WINDOW).isBefore(windowEnd)) {
+            log.error("findAvailability(): Invalid period from {} to {}.", windowStart, windowEnd);
+            throw new BadRequestException(String.format("The period must start before it ends and last at most %d days.",
+                    MAX_AVAILABILITY_WINDOW.toDays()));
+        }
+
+        log.info("findAvailability(): Checking the existence of a user with id = {}.", userId);
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findAvailability(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+        log.info("findAvailability(): Checking the existence of an item with id = {}.", itemId);
+        if (!itemRepository.existsById(itemId)) {
+            log.error("findAvailability(): Item with id = {} not found", itemId);
+            throw new NotFoundException(String.format("Item with id = %d not found", itemId));
+        }
+
+        log.info("findAvailability(): Computing free and busy intervals for item with id = {}.", itemId);
+        ItemAvailabilityDto availability = AvailabilityCalendar.of(itemId, windowStart, windowEnd,
+                bookingIntervalIndex.findOverlapping(itemId, windowStart, windowEnd));
+
+        log.info("findAvailability(): Availability of item with id = {} successfully computed.", itemId);
+        return availability;
     }
 
-    private BookingDtoForItem getNextBooking(Item item, LocalDateTime now) {
-        Booking sortedStartBooking = bookingRepository.findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(item, now, BookingStatus.APPROVED).orElse(null);
-        return (sortedStartBooking != null) ? bookingMapper.toBookingDtoForItem(sortedStartBooking) : null;
+    private List<ReturnItemDto> toReturnItemDtos(List<Item> items) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        log.info("toReturnItemDtos(): Searching last booking and next booking for items.");
+        Map<Long, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Long, BookingDtoForItem> nextBookings = new HashMap<>();
+        collectLastAndNextBookings(itemIds, lastBookings, nextBookings);
+
+        log.info("toReturnItemDtos(): Searching comments for items.");
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
+
+        List<ReturnItemDto> itemsWithBookingDto = new ArrayList<>();
+        for (Item item : items) {
+            itemsWithBookingDto.add(itemMapper.toReturnItemDto(item,
+                    lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId()),
+                    comments.getOrDefault(item.getId(), new ArrayList<>())));
+        }
+        return itemsWithBookingDto;
+    }
+
+    private void collectLastAndNextBookings(Collection<Long> itemIds,
+                                            Map<Long, BookingDtoForItem> lastBookings,
+                                            Map<Long, BookingDtoForItem> nextBookings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingDtoForItem booking : bookingRepository.findLastAndNextByItemIds(itemIds, now, BookingStatus.APPROVED)) {
+            Map<Long, BookingDtoForItem> bookings = booking.getStart().isBefore(now) ? lastBookings : nextBookings;
+            bookings.putIfAbsent(booking.getItemId(), booking);
+        }
     }
 
     private Boolean isPaginationEnabled(Integer from, Integer size) {
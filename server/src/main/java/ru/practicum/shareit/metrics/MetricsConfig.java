@@ -0,0 +1,45 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Hot-path metrics, scraped from {@code /actuator/prometheus}:
+ * <ul>
+ *     <li>{@code shareit.service.calls} and {@code shareit.booking.queries}, see {@link ServiceMetricsAspect};</li>
+ *     <li>{@code spring.data.repository.invocations}, the time of every repository method, from Spring Boot;</li>
+ *     <li>{@code shareit.repository.rows}, see {@link RepositoryRowsInterceptor};</li>
+ *     <li>{@code hibernate.*}, the Hibernate statistics ({@code hibernate.generate_statistics}), from which
+ *     statements per request are {@code hibernate_statements_total} over {@code http_server_requests_seconds_count}.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect(MeterRegistry meterRegistry) {
+        return new ServiceMetricsAspect(meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryRowsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryRowsInterceptor(registry, repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
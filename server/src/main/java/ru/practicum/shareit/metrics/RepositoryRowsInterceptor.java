@@ -0,0 +1,63 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records how many rows each repository method returned in {@code shareit.repository.rows}, tagged with the
+ * repository and the method; the time each method takes is already recorded by Spring Boot in
+ * {@code spring.data.repository.invocations}. Lists, pages and optionals are measured on return, streams once they
+ * are closed. Counts, flags and {@code void} methods return no rows and are not recorded.
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+    static final String ROWS_METER = "shareit.repository.rows";
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repository;
+
+    public RepositoryRowsInterceptor(Supplier<MeterRegistry> meterRegistry, Class<?> repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Class<?> returnType = invocation.getMethod().getReturnType();
+        if (result instanceof Stream<?> stream) {
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment())
+                    .onClose(() -> rows(invocation).record(rows.sum()));
+        }
+        if (result instanceof Collection<?> collection) {
+            rows(invocation).record(collection.size());
+        } else if (result instanceof Slice<?> slice) {
+            rows(invocation).record(slice.getNumberOfElements());
+        } else if (result instanceof Optional<?> optional) {
+            rows(invocation).record(optional.isPresent() ? 1 : 0);
+        } else if (!returnType.isPrimitive() && !Number.class.isAssignableFrom(returnType)
+                && !Boolean.class.equals(returnType)) {
+            rows(invocation).record(result == null ? 0 : 1);
+        }
+        return result;
+    }
+
+    private DistributionSummary rows(MethodInvocation invocation) {
+        return DistributionSummary.builder(ROWS_METER)
+                .description("Rows returned by repository methods")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", invocation.getMethod().getName())
+                .publishPercentileHistogram()
+                .maximumExpectedValue(10_000.0)
+                .register(meterRegistry.get());
+    }
+}
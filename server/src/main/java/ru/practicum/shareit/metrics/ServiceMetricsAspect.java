@@ -0,0 +1,72 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans in {@code shareit.service.calls}, tagged with the
+ * class, the method and the simple name of the exception thrown ({@code none} on success), so the timer's count is
+ * the call counter and its {@code exception} tag the error counter. Calls that take a {@link BookingState} are also
+ * timed in {@code shareit.booking.queries}, tagged with the method and the state, since each state runs a query of
+ * its own.
+ * <p>
+ * Runs outside the transaction advice, so the time includes opening the transaction and committing it.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+    static final String SERVICE_METER = "shareit.service.calls";
+    static final String BOOKING_METER = "shareit.booking.queries";
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String method = joinPoint.getSignature().getName();
+            long nanos = sample.stop(Timer.builder(SERVICE_METER)
+                    .description("Time spent in service methods")
+                    .tags(Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                            "method", method, "exception", exception))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            BookingState state = bookingState(joinPoint.getArgs());
+            if (state != null) {
+                Timer.builder(BOOKING_METER)
+                        .description("Time spent listing bookings by state")
+                        .tags(Tags.of("method", method, "state", state.name(), "exception", exception))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static BookingState bookingState(Object[] args) {
+        return Arrays.stream(args)
+                .filter(BookingState.class::isInstance)
+                .map(BookingState.class::cast)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request SQL statement budget: {@link StatementCounter} counts what Hibernate prepares and
+ * {@link StatementBudgetFilter} checks every request against {@code shareit.statement-budget.max-statements} and
+ * {@code shareit.statement-budget.max-repeats}. Set {@code shareit.statement-budget.fail-on-exceed} in tests to turn
+ * the warnings into failures.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetConfig {
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.statement-budget.max-statements:20}") int maxStatements,
+            @Value("${shareit.statement-budget.max-repeats:5}") int maxRepeats,
+            @Value("${shareit.statement-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(
+                new StatementBudgetFilter(meterRegistry, maxStatements, maxRepeats, failOnExceed));
+        // Inside the concurrency limit, so rejected requests are not counted.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.metrics;
+
+public class StatementBudgetExceededException extends IllegalStateException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
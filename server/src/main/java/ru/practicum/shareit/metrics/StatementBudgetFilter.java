@@ -0,0 +1,93 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts the SQL statements of every request with a {@link StatementCounter} scope and records them in
+ * {@code shareit.http.server.requests.statements}, tagged with the method and the URI template. A request over
+ * {@code maxStatements}, or one that repeats a select more than {@code maxRepeats} times (an N+1), is logged as a
+ * warning; a streamed request is checked one chunk at a time; with {@code failOnExceed} it also fails with {@link StatementBudgetExceededException}, which is how tests
+ * keep new N+1s out.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    static final String STATEMENTS_METER = "shareit.http.server.requests.statements";
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean failOnExceed;
+
+    public StatementBudgetFilter(MeterRegistry meterRegistry, int maxStatements, int maxRepeats, boolean failOnExceed) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String violation;
+        StatementCounter.Scope scope = StatementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            violation = check(request, scope);
+        }
+        if (violation != null && failOnExceed) {
+            throw new StatementBudgetExceededException(violation);
+        }
+    }
+
+    private String check(HttpServletRequest request, StatementCounter.Scope scope) {
+        String uri = uri(request);
+        statements(request.getMethod(), uri).record(scope.getStatements());
+
+        String violation = null;
+        if (scope.getMaxChunkStatements() > maxStatements) {
+            violation = String.format("%s %s ran %d SQL statements, over the budget of %d.",
+                    request.getMethod(), uri, scope.getMaxChunkStatements(), maxStatements);
+        }
+        Optional<Map.Entry<String, Integer>> repeated = scope.mostRepeatedSelect(maxRepeats);
+        if (repeated.isPresent()) {
+            violation = String.format("%s %s ran the same select %d times, a likely N+1: %s",
+                    request.getMethod(), uri, repeated.get().getValue(), oneLine(repeated.get().getKey()));
+        }
+        if (violation != null) {
+            log.warn("check(): {}", violation);
+        }
+        return violation;
+    }
+
+    private DistributionSummary statements(String method, String uri) {
+        return DistributionSummary.builder(STATEMENTS_METER)
+                .description("SQL statements run per request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private static String oneLine(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Scope} is open. Registered as
+ * the session factory's {@link StatementInspector}; statements prepared outside any scope are not counted. A request
+ * runs on a thread of its own, so a scope opened around it counts that request's statements alone.
+ * <pre>
+ * try (StatementCounter.Scope scope = StatementCounter.open()) {
+ *     itemService.findByOwner(ownerId, null, null);
+ *     assertEquals(4, scope.getStatements());
+ * }
+ * </pre>
+ * Nested scopes count into their parent as well once closed.
+ * <p>
+ * Sequence fetches are not counted: the pooled id optimizer runs one per {@code increment_size} inserts, so a bulk
+ * insert repeats the same one legitimately. Requests that stream rows call {@link #nextChunk()} after each chunk;
+ * the budget checks then apply to the statements of one chunk at a time, since every chunk repeats the same
+ * per-chunk queries by design.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Closes the current chunk of the scope open on this thread, if any: statements from here on are checked
+     * against the budget separately from the ones before.
+     */
+    public static void nextChunk() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.nextChunk();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null && !isSequenceFetch(sql)) {
+            scope.count(sql);
+        }
+        return sql;
+    }
+
+    private static boolean isSequenceFetch(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return normalized.contains("next value for") || normalized.contains("nextval(");
+    }
+
+    public static class Scope implements AutoCloseable {
+        private final Scope parent;
+        private Map<String, Integer> selects = new HashMap<>();
+        @Getter
+        private int statements;
+        private int chunkStatements;
+        private int maxChunkStatements;
+        private Map.Entry<String, Integer> mostRepeated;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void count(String sql) {
+            statements++;
+            chunkStatements++;
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        private void nextChunk() {
+            maxChunkStatements = getMaxChunkStatements();
+            mostRepeated = mostRepeated();
+            chunkStatements = 0;
+            selects = new HashMap<>();
+        }
+
+        /**
+         * Returns the most statements run in one chunk of this scope; without chunks, all of its statements.
+         */
+        public int getMaxChunkStatements() {
+            return Math.max(maxChunkStatements, chunkStatements);
+        }
+
+        /**
+         * Returns the select run most often in one chunk of this scope when it ran more than {@code maxRepeats}
+         * times, the mark of an N+1: one query per row of an earlier one. Inserts and updates repeat legitimately in
+         * JDBC batches and are not considered.
+         */
+        public Optional<Map.Entry<String, Integer>> mostRepeatedSelect(int maxRepeats) {
+            return Optional.ofNullable(mostRepeated())
+                    .filter(select -> select.getValue() > maxRepeats);
+        }
+
+        private Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> current = selects.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(select -> Map.entry(select.getKey(), select.getValue()))
+                    .orElse(null);
+            if (current == null || mostRepeated != null && mostRepeated.getValue() >= current.getValue()) {
+                return mostRepeated;
+            }
+            return current;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                CURRENT.remove();
+                return;
+            }
+            CURRENT.set(parent);
+            parent.statements += statements;
+            parent.chunkStatements += chunkStatements;
+            parent.maxChunkStatements = Math.max(parent.maxChunkStatements, maxChunkStatements);
+            if (mostRepeated != null && (parent.mostRepeated == null || mostRepeated.getValue() > parent.mostRepeated.getValue())) {
+                parent.mostRepeated = mostRepeated;
+            }
+            selects.forEach((sql, count) -> parent.selects.merge(sql, count, Integer::sum));
+        }
+    }
+}
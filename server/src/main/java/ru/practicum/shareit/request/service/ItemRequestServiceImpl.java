@@ -7,6 +7,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -17,10 +18,13 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +36,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemMapper itemMapper;
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
 
     @Override
@@ -39,11 +44,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto create(long userId, ItemRequestDto itemRequestDto) {
         log.info("ItemRequestService: Beginning of method execution create().");
         log.info("create(): Checking the existence of a user with id = {}.", userId);
-        User requestor = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("create(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("create(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+        User requestor = userRepository.getReferenceById(userId);
 
         itemRequestDto.setCreated(LocalDateTime.now());
         log.info("crate(): Add the request to the database.");
@@ -57,19 +62,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> findByUser(long userId) {
         log.info("ItemRequestService: Beginning of method execution findByUser().");
         log.info("findByUser(): Checking the existence of a user with id = {}.", userId);
-        User requestor = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findByUser(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
-
-        List<ItemRequestDto> requestDtos = new ArrayList<>();
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findByUser(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
+        User requestor = userRepository.getReferenceById(userId);
 
         log.info("findByUser(): Searching all requests by user.");
+        Collection<ItemRequest> requests = itemRequestRepository.findAllByRequestorOrderByCreatedDesc(requestor);
+
         log.info("findByUser(): Searching responses for item request.");
-        for (ItemRequest request : itemRequestRepository.findAllByRequestorOrderByCreatedDesc(requestor)) {
-            requestDtos.add(getFullItemRequestDto(request));
-        }
+        List<ItemRequestDto> requestDtos = toFullItemRequestDtos(requests);
 
         log.info("findByUser(): Searching successfully completed.");
         return requestDtos;
@@ -89,23 +92,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
 
         log.info("findAll(): Checking the existence of a user with id = {}.", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findAll(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
-
-        List<ItemRequestDto> requestDtos = new ArrayList<>();
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findAll(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
 
         log.info("findAll(): Searching all requests.");
         List<ItemRequest> requests = itemRequestRepository.findAll(PageRequest.of(from / size, size, Sort.by("created"))). stream()
-                .filter(request -> user.getId() != request.getRequestor().getId())
+                .filter(request -> request.getRequestor().getId() != userId)
                 .collect(Collectors.toList());
 
         log.info("findAll(): Searching responses for item request.");
-        for (ItemRequest request : requests) {
-            requestDtos.add(getFullItemRequestDto(request));
-        }
+        List<ItemRequestDto> requestDtos = toFullItemRequestDtos(requests);
         log.info("findAll(): Searching successfully completed.");
         return requestDtos;
     }
@@ -114,11 +112,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto findById(long userId, long requestId) {
         log.info("ItemRequestService: Beginning of method execution findById().");
         log.info("findById(): Checking the existence of a user with id = {}.", userId);
-        userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("findById(): User with id = {} not found", userId);
-                    return new NotFoundException(String.format("User with id = %d not found", userId));
-                });
+        if (!userExistenceCache.exists(userId)) {
+            log.error("findById(): User with id = {} not found", userId);
+            throw new NotFoundException(String.format("User with id = %d not found", userId));
+        }
 
         log.info("findById(): Searching request with id = {}.", requestId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
@@ -128,19 +125,30 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 });
 
         log.info("findAll(): Searching response for item request.");
-        ItemRequestDto itemRequestDto = getFullItemRequestDto(itemRequest);
+        ItemRequestDto itemRequestDto = toFullItemRequestDtos(List.of(itemRequest)).get(0);
 
         log.info("findById(): Searching successfully completed.");
         return itemRequestDto;
     }
 
-    private ItemRequestDto getFullItemRequestDto(ItemRequest request) {
-        ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(request);
-
-        itemRequestDto.setItems(itemRepository.findAllByRequest(request).stream()
-                .map(itemMapper::toResponseItemDto)
-                .collect(Collectors.toList()));
+    /**
+     * Maps the requests together with the items offered in response to them, loading the items of all the requests
+     * with one query.
+     */
+    private List<ItemRequestDto> toFullItemRequestDtos(Collection<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<ResponseItemDto>> items = itemRepository.findAllByRequestIn(requests).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toResponseItemDto, Collectors.toList())));
 
-        return itemRequestDto;
+        List<ItemRequestDto> requestDtos = new ArrayList<>();
+        for (ItemRequest request : requests) {
+            ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(request);
+            itemRequestDto.setItems(items.getOrDefault(request.getId(), new ArrayList<>()));
+            requestDtos.add(itemRequestDto);
+        }
+        return requestDtos;
     }
 }
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.stream;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.metrics.StatementCounter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads a query result {@link Stream} (a database cursor, fetched {@code hibernate.jdbc.fetch_size} rows at a time)
+ * in chunks of {@code chunkSize} entities. After each chunk has been handed on, the persistence context is cleared,
+ * so however many rows the query returns, only one chunk of entities is held in memory. Working in chunks also lets
+ * the caller load what the entities need with one query per chunk instead of one per entity; the statement budget
+ * is checked per chunk for the same reason.
+ * <p>
+ * Must be called inside a transaction, which stays open while the stream is read; the caller must not rely on
+ * entities of earlier chunks staying managed.
+ */
+@Component
+public class ChunkedStreamReader {
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public ChunkedStreamReader(EntityManager entityManager,
+                               @Value("${shareit.stream.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> long read(Stream<T> rows, Consumer<List<T>> chunks) {
+        long read = 0;
+        try (rows) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                read++;
+                if (chunk.size() == chunkSize) {
+                    accept(chunk, chunks);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                accept(chunk, chunks);
+            }
+        }
+        return read;
+    }
+
+    private <T> void accept(List<T> chunk, Consumer<List<T>> chunks) {
+        chunks.accept(chunk);
+        chunk.clear();
+        entityManager.clear();
+        StatementCounter.nextChunk();
+    }
+}
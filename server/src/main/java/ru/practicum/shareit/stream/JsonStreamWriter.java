@@ -0,0 +1,125 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects to the response while they are produced, either as newline-delimited JSON or as one JSON array, so
+ * a long answer is never held in memory as a whole. The status and content type are set when the first object is
+ * written; until then the response is untouched and an exception still turns into a regular error response. An
+ * error after that can only cut the response short: an array is then left unclosed, which clients see as invalid.
+ * <p>
+ * Streamed responses bypass the ETag filter, which would otherwise buffer them to compute a hash.
+ */
+public class JsonStreamWriter {
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_SEPARATOR = {','};
+    private static final byte[] ARRAY_END = {']'};
+    private final ObjectWriter objectWriter;
+    private final HttpServletResponse response;
+    private final boolean ndjson;
+    private OutputStream out;
+    private boolean empty = true;
+
+    private JsonStreamWriter(ObjectMapper objectMapper, HttpServletRequest request, HttpServletResponse response,
+                             boolean ndjson) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        this.objectWriter = objectMapper.writer();
+        this.response = response;
+        this.ndjson = ndjson;
+    }
+
+    public static JsonStreamWriter ndjson(ObjectMapper objectMapper, HttpServletRequest request,
+                                          HttpServletResponse response) {
+        return new JsonStreamWriter(objectMapper, request, response, true);
+    }
+
+    /**
+     * Writes newline-delimited JSON when the client lists {@code application/x-ndjson} among the accepted media
+     * types, and a JSON array otherwise, which is what list endpoints have always returned.
+     */
+    public static JsonStreamWriter forAccept(ObjectMapper objectMapper, HttpServletRequest request,
+                                             HttpServletResponse response) {
+        return new JsonStreamWriter(objectMapper, request, response, acceptsNdjson(request));
+    }
+
+    public void write(Object value) {
+        try {
+            OutputStream out = start();
+            if (!ndjson) {
+                out.write(empty ? ARRAY_START : ARRAY_SEPARATOR);
+            }
+            out.write(objectWriter.writeValueAsBytes(value));
+            if (ndjson) {
+                out.write(LINE_SEPARATOR);
+            }
+            empty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends what has been written so far to the client.
+     */
+    public void flush() {
+        try {
+            start().flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends the sequence and sends the rest of it; an array with nothing written is sent as {@code []}.
+     */
+    public void close() {
+        try {
+            OutputStream out = start();
+            if (!ndjson) {
+                if (empty) {
+                    out.write(ARRAY_START);
+                }
+                out.write(ARRAY_END);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private OutputStream start() throws IOException {
+        if (out == null) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            out = response.getOutputStream();
+        }
+        return out;
+    }
+
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                            && mediaType.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.stream.JsonStreamWriter;
 import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -14,12 +18,18 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto create(@RequestBody UserDto userDto) {
         return userService.create(userDto);
     }
 
+    @PostMapping("/bulk")
+    public List<UserDto> createAll(@RequestBody List<UserDto> userDtos) {
+        return userService.createAll(userDtos);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable long userId, @RequestBody UpdatedUserDto userDto) {
         return userService.update(userId, userDto);
@@ -30,9 +40,14 @@ public class UserController {
         return userService.findById(userId);
     }
 
+    /**
+     * Streams all users as a JSON array, or as newline-delimited JSON when the client accepts it.
+     */
     @GetMapping
-    public List<UserDto> findAll() {
-        return userService.findAll();
+    public void findAll(HttpServletRequest request, HttpServletResponse response) {
+        JsonStreamWriter users = JsonStreamWriter.forAccept(objectMapper, request, response);
+        userService.findAll(users::write);
+        users.close();
     }
 
     @DeleteMapping("/{userId}")
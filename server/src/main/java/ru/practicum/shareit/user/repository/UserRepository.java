@@ -1,8 +1,18 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("select u.email from User u where u.email in ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    Stream<User> streamAllByOrderById();
+}
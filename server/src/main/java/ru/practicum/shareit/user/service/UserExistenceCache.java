@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Remembers the ids of users known to exist, so that validating the {@code X-Sharer-User-Id} header does not
+ * cost a database round trip on every request. Only positive answers are cached; unknown ids always go to the
+ * database. Entries expire after a while, which bounds staleness when users are deleted by another instance.
+ */
+@Slf4j
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existingUsers;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                              @Value("${shareit.cache.users.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.existingUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean exists(long userId) {
+        if (existingUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            existingUsers.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    /**
+     * Drops the user from the cache now and, when called inside a transaction, once more after it commits,
+     * so a concurrent lookup cannot re-cache a user whose deletion is about to become visible.
+     */
+    public void evict(long userId) {
+        log.info("evict(): Evicting user with id = {} from the existence cache.", userId);
+        existingUsers.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    existingUsers.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -4,15 +4,18 @@ import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto user);
 
+    List<UserDto> createAll(List<UserDto> users);
+
     UserDto update(long userId, UpdatedUserDto user);
 
     UserDto findById(long userId);
 
-    List<UserDto> findAll();
+    void findAll(Consumer<UserDto> users);
 
     void deleteById(long userId);
 }
\ No newline at end of file
@@ -4,15 +4,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.EntityCacheEvictor;
+import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.exception.exception.ConflictException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,8 +26,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final int MAX_BULK_SIZE = 1000;
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserExistenceCache userExistenceCache;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ChunkedStreamReader chunkedStreamReader;
 
     @Override
     @Transactional
@@ -39,6 +49,46 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(addedUser);
     }
 
+    /**
+     * Adds many users in one transaction. The emails are checked against each other and, with one query, against
+     * the stored users; the users are then inserted together, which Hibernate sends as JDBC batches since ids come
+     * from a sequence. Ids sent by the client are ignored, every user is new.
+     */
+    @Override
+    @Transactional
+    public List<UserDto> createAll(List<UserDto> userDtos) {
+        log.info("UserService: Beginning of method execution createAll().");
+        if (userDtos == null || userDtos.isEmpty() || userDtos.size() > MAX_BULK_SIZE) {
+            log.error("createAll(): From 1 to {} users can be added at once.", MAX_BULK_SIZE);
+            throw new BadRequestException(String.format("From 1 to %d users can be added at once.", MAX_BULK_SIZE));
+        }
+        log.info("createAll(): Checking the emails of {} users.", userDtos.size());
+        Set<String> emails = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            if (!emails.add(userDto.getEmail())) {
+                log.error("createAll(): Conflict when saving data. The email {} is used more than once.", userDto.getEmail());
+                throw new ConflictException(String.format("Conflict when saving data. The email %s is used more than once.", userDto.getEmail()));
+            }
+        }
+        List<String> existingEmails = userRepository.findExistingEmails(emails);
+        if (!existingEmails.isEmpty()) {
+            log.error("createAll(): Conflict when saving data. Users with emails {} already exist.", existingEmails);
+            throw new ConflictException(String.format("Conflict when saving data. Users with emails %s already exist.", existingEmails));
+        }
+
+        log.info("createAll(): Add the users to the database.");
+        List<User> users = userDtos.stream()
+                .map(userMapper::fromUserDto)
+                .collect(Collectors.toList());
+        users.forEach(user -> user.setId(0));
+        List<User> addedUsers = userRepository.saveAll(users);
+
+        log.info("createAll(): {} users successfully added to database.", addedUsers.size());
+        return addedUsers.stream()
+                .map(userMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public UserDto update(long userId, UpdatedUserDto updatedUserDto) {
@@ -64,6 +114,7 @@ public class UserServiceImpl implements UserService {
             log.info("update(): Update UserEmail with id = {}", userId);
         }
         User updatedUser = userRepository.save(existingUser);
+        userExistenceCache.evict(userId);
 
         log.info("update(): User with id = {} successfully updated in database.", updatedUser.getId());
         return userMapper.toUserDto(updatedUser);
@@ -83,17 +134,20 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(user);
     }
 
+    /**
+     * Hands every user to {@code users} while they are read from a database cursor, chunk by chunk, so the whole
+     * table is never loaded at once.
+     */
     @Override
-    public List<UserDto> findAll() {
+    public void findAll(Consumer<UserDto> users) {
         log.info("UserService: Beginning of method execution findAll().");
 
         log.info("findAll(): Searching all users.");
-        List<UserDto> userDtoList = userRepository.findAll().stream()
+        long found = chunkedStreamReader.read(userRepository.streamAllByOrderById(), chunk -> chunk.stream()
                 .map(userMapper::toUserDto)
-                .collect(Collectors.toList());
+                .forEach(users));
 
-        log.info("findAll(): Search for all users successful completed.");
-        return userDtoList;
+        log.info("findAll(): Search for all users successful completed, {} users found.", found);
     }
 
     @Override
@@ -101,6 +155,8 @@ public class UserServiceImpl implements UserService {
     public void deleteById(long userId) {
         log.info("UserService: Beginning of method execution deleteById().");
         userRepository.deleteById(userId);
+        userExistenceCache.evict(userId);
+        entityCacheEvictor.evictUserCascade(userId);
         log.info("deleteById(): User with id = {} successfully deleted.", userId);
     }
 }
@@ -52,6 +52,3 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_item_comment FOREIGN KEY (item_id) REFERENCES items ON DELETE CASCADE,
     CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users ON DELETE CASCADE
 );
-
-
-
@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Applies the Postgres exclusion constraint on approved booking periods to a schema that already holds approved
+ * bookings, overlapping or not. Runs against PostgreSQL only, like the Postgres part of {@link SchemaMigrationTest}.
+ */
+@DataJpaTest
+// Flyway migrates on connections of its own, which would wait for the locks of a test transaction.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingOverlapMigrationTest {
+    private static final String SCHEMA = "booking_overlap_migration";
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(isPostgres(), "The exclusion constraint exists on PostgreSQL only");
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (isPostgres()) {
+            jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        }
+    }
+
+    @Test
+    void migrate_whenApprovedBookingsOverlap_thenFailListingThemAndChangeNothing() {
+        flyway("3").migrate();
+        insertItems();
+        // 1 and 2 overlap, 2 and 3 overlap; 4 is another item and 5 is not approved.
+        jdbcTemplate.update("insert into " + SCHEMA + ".bookings (id, start_date, end_date, item_id, booker_id, status) values "
+                + "(1, '2030-01-01', '2030-01-05', 1, 1, 'APPROVED'), "
+                + "(2, '2030-01-04', '2030-01-08', 1, 1, 'APPROVED'), "
+                + "(3, '2030-01-06', '2030-01-09', 1, 1, 'APPROVED'), "
+                + "(4, '2030-01-02', '2030-01-03', 2, 1, 'APPROVED'), "
+                + "(5, '2030-01-02', '2030-01-03', 1, 1, 'WAITING')");
+
+        FlywayException e = assertThrows(FlywayException.class, () -> flyway(null).migrate());
+
+        assertTrue(e.getMessage().contains("item 1: bookings 1 and 2; item 1: bookings 2 and 3"), e.getMessage());
+        assertEquals(List.of("APPROVED", "APPROVED", "APPROVED", "APPROVED", "WAITING"), jdbcTemplate.queryForList(
+                "select status from " + SCHEMA + ".bookings order by id", String.class));
+        assertEquals(0, constraints());
+    }
+
+    @Test
+    void migrate_whenApprovedBookingsDoNotOverlap_thenAddConstraint() {
+        flyway("3").migrate();
+        insertItems();
+        // 1 ends where 2 starts; 3 overlaps 1 but is rejected; 4 is another item.
+        jdbcTemplate.update("insert into " + SCHEMA + ".bookings (id, start_date, end_date, item_id, booker_id, status) values "
+                + "(1, '2030-01-01', '2030-01-05', 1, 1, 'APPROVED'), "
+                + "(2, '2030-01-05', '2030-01-08', 1, 1, 'APPROVED'), "
+                + "(3, '2030-01-02', '2030-01-03', 1, 1, 'REJECTED'), "
+                + "(4, '2030-01-02', '2030-01-03', 2, 1, 'APPROVED')");
+
+        flyway(null).migrate();
+
+        assertEquals(1, constraints());
+    }
+
+    private void insertItems() {
+        jdbcTemplate.update("insert into " + SCHEMA + ".users (id, name, email) values (1, 'Owner', 'owner@email.com')");
+        jdbcTemplate.update("insert into " + SCHEMA + ".items (id, name, description, available, owner_id) "
+                + "values (1, 'Item', 'Description', true, 1), (2, 'Other', 'Description', true, 1)");
+    }
+
+    private Integer constraints() {
+        return jdbcTemplate.queryForObject("select count(*) from pg_constraint c "
+                + "join pg_namespace n on n.oid = c.connamespace "
+                + "where n.nspname = ? and c.conname = 'ex_bookings_item_approved_period'", Integer.class, SCHEMA);
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL")));
+    }
+}
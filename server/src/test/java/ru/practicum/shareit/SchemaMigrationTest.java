@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SchemaMigrationTest {
+    private static final Map<String, List<String>> INDEXES = Map.of(
+            "bookings", List.of("ix_bookings_booker_start", "ix_bookings_item_status_start"),
+            "items", List.of("ix_items_owner", "ix_items_request"),
+            "comments", List.of("ix_comments_item"),
+            "requests", List.of("ix_requests_requestor_created"));
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_whenApplied_thenCreateIndexesForRepositoryAccessPaths() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for (Map.Entry<String, List<String>> table : INDEXES.entrySet()) {
+                Set<String> actual = findIndexNames(metaData, table.getKey());
+
+                assertTrue(actual.containsAll(table.getValue()), "Missing indexes on " + table.getKey() + ": " + actual);
+            }
+        }
+    }
+
+    @Test
+    void explain_whenBookingsSelectedByBooker_thenUseIndex() {
+        assertIndexScan("select * from bookings where booker_id = 1 order by start_date desc, id desc");
+    }
+
+    @Test
+    void explain_whenBookingsSelectedByItemOwner_thenUseIndex() {
+        assertIndexScan("select * from bookings b join items i on b.item_id = i.id " +
+                "where i.owner_id = 1 order by b.start_date desc, b.id desc");
+    }
+
+    @Test
+    void explain_whenLastAndNextBookingsSelectedByItems_thenUseIndex() {
+        assertIndexScan("select * from bookings where item_id in (1, 2) and status = 'APPROVED' " +
+                "and start_date < current_timestamp");
+    }
+
+    @Test
+    void explain_whenItemsSelectedByOwner_thenUseIndex() {
+        assertIndexScan("select * from items where owner_id = 1");
+    }
+
+    @Test
+    void explain_whenItemsSelectedByRequest_thenUseIndex() {
+        assertIndexScan("select * from items where request_id = 1");
+    }
+
+    @Test
+    void explain_whenCommentsSelectedByItems_thenUseIndex() {
+        assertIndexScan("select * from comments where item_id in (1, 2)");
+    }
+
+    @Test
+    void explain_whenRequestsSelectedByRequestor_thenUseIndex() {
+        assertIndexScan("select * from requests where requestor_id = 1 order by created desc");
+    }
+
+    private void assertIndexScan(String sql) {
+        if (isPostgres()) {
+            // Empty tables always favour a sequential scan, so ask the planner whether an index path exists at all.
+            jdbcTemplate.execute("set enable_seqscan = off");
+        }
+        String plan = jdbcTemplate.queryForList("explain " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"));
+
+        assertFalse(plan.contains("tableScan") || plan.contains("Seq Scan"), "Full table scan in plan:\n" + plan);
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL")));
+    }
+
+    private Set<String> findIndexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Set<String> indexNames = new HashSet<>();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, tableName, false, true)) {
+            while (indexes.next()) {
+                String indexName = indexes.getString("INDEX_NAME");
+                if (indexName != null) {
+                    indexNames.add(indexName.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexNames;
+    }
+}
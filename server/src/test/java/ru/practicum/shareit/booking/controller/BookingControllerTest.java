@@ -3,24 +3,34 @@ package ru.practicum.shareit.booking.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -99,6 +109,31 @@ class BookingControllerTest {
         verify(bookingService, times(1)).statusUpdate(anyLong(), anyLong(), anyBoolean());
     }
 
+    @SneakyThrows
+    @Test
+    void statusUpdateAll_whenNormallyInvoked_thenReturnResultPerBooking() {
+        BookingStatusUpdateDto statusUpdateDto = BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(bookingId, 2L))
+                .approved(true)
+                .build();
+        when(bookingService.statusUpdateAll(userId, statusUpdateDto)).thenReturn(List.of(
+                BookingStatusResultDto.builder().bookingId(bookingId).code(200).status(BookingStatus.APPROVED).build(),
+                BookingStatusResultDto.builder().bookingId(2L).code(404).error("Booking with id = 2 not found.").build()));
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(statusUpdateDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].code").value(404));
+
+        verify(bookingService, never()).statusUpdate(anyLong(), anyLong(), anyBoolean());
+    }
+
     @SneakyThrows
     @Test
     void statusUpdate_whenWithoutApprovedParam_thenReturnBadRequest() {
@@ -190,8 +225,8 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void findAllByBookerId_whenNormallyInvokedWithoutFromParam_thenReturnOk() {
-        when(bookingService.findAllByBookerId(anyLong(), any(), any(), any()))
-                .thenReturn(listReturnBookingDtos);
+        doAnswer(streamOf(listReturnBookingDtos))
+                .when(bookingService).streamAllByBookerId(anyLong(), any(), any());
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -201,7 +236,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(listReturnBookingDtos.size()));
 
-        verify(bookingService, times(1)).findAllByBookerId(anyLong(), any(), any(), any());
+        verify(bookingService, times(1)).streamAllByBookerId(anyLong(), any(), any());
     }
 
     @SneakyThrows
@@ -224,8 +259,8 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void findAllByBookerId_whenNormallyInvokedWithoutAllParams_thenReturnOk() {
-        when(bookingService.findAllByBookerId(anyLong(), any(), any(), any()))
-                .thenReturn(listReturnBookingDtos);
+        doAnswer(streamOf(listReturnBookingDtos))
+                .when(bookingService).streamAllByBookerId(anyLong(), any(), any());
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId))
@@ -233,7 +268,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(listReturnBookingDtos.size()));
 
-        verify(bookingService, times(1)).findAllByBookerId(anyLong(), any(), any(), any());
+        verify(bookingService, times(1)).streamAllByBookerId(anyLong(), any(), any());
     }
 
     @SneakyThrows
@@ -284,8 +319,8 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void findAllByOwner_whenNormallyInvokedWithoutFromParam_thenReturnOk() {
-        when(bookingService.findAllByOwnerId(anyLong(), any(), any(), any()))
-                .thenReturn(listReturnBookingDtos);
+        doAnswer(streamOf(listReturnBookingDtos))
+                .when(bookingService).streamAllByOwnerId(anyLong(), any(), any());
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -295,7 +330,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(listReturnBookingDtos.size()));
 
-        verify(bookingService, times(1)).findAllByOwnerId(anyLong(), any(), any(), any());
+        verify(bookingService, times(1)).streamAllByOwnerId(anyLong(), any(), any());
     }
 
     @SneakyThrows
@@ -318,8 +353,8 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void findAllByOwner_whenNormallyInvokedWithoutAllParams_thenReturnOk() {
-        when(bookingService.findAllByOwnerId(anyLong(), any(), any(), any()))
-                .thenReturn(listReturnBookingDtos);
+        doAnswer(streamOf(listReturnBookingDtos))
+                .when(bookingService).streamAllByOwnerId(anyLong(), any(), any());
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId))
@@ -327,7 +362,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(listReturnBookingDtos.size()));
 
-        verify(bookingService, times(1)).findAllByOwnerId(anyLong(), any(), any(), any());
+        verify(bookingService, times(1)).streamAllByOwnerId(anyLong(), any(), any());
     }
 
     @SneakyThrows
@@ -339,4 +374,136 @@ class BookingControllerTest {
 
         verify(bookingService, never()).findAllByOwnerId(anyLong(), any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findAllByBookerId_whenInvokedWithCursor_thenScrollAndReturnNextCursor() {
+        ReturnBookingDto lastBooking = ReturnBookingDto.builder()
+                .id(5L)
+                .start(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+        String cursor = BookingCursor.of(returnBookingDtoWithStart()).encode();
+
+        when(bookingService.scrollAllByBookerId(anyLong(), any(), anyString(), any()))
+                .thenReturn(List.of(lastBooking));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", state.toString())
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(lastBooking).encode()));
+
+        verify(bookingService, times(1)).scrollAllByBookerId(anyLong(), any(), eq(cursor), eq(1));
+        verify(bookingService, never()).findAllByBookerId(anyLong(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByOwner_whenInvokedWithCursorAndLastPage_thenReturnWithoutNextCursor() {
+        when(bookingService.scrollAllByOwnerId(anyLong(), any(), anyString(), any()))
+                .thenReturn(listReturnBookingDtos);
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", state.toString())
+                        .param("size", size.toString())
+                        .param("cursor", ""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        verify(bookingService, times(1)).scrollAllByOwnerId(anyLong(), any(), anyString(), any());
+        verify(bookingService, never()).findAllByOwnerId(anyLong(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByBookerId_whenInvokedWithFields_thenReturnOnlyRequestedFields() {
+        ReturnBookingDto booking = ReturnBookingDto.builder()
+                .id(bookingId)
+                .start(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .end(LocalDateTime.of(2024, 1, 2, 12, 0))
+                .item(new BookingItemDto(1L, "ItemName"))
+                .booker(new BookerDto(2L))
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        doAnswer(streamOf(List.of(booking)))
+                .when(bookingService).streamAllByBookerId(anyLong(), any(), any());
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("fields", "id, Item,status"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(bookingId))
+                .andExpect(jsonPath("$[0].item.name").value("ItemName"))
+                .andExpect(jsonPath("$[0].status").value(BookingStatus.APPROVED.toString()))
+                .andExpect(jsonPath("$[0].start").doesNotExist())
+                .andExpect(jsonPath("$[0].end").doesNotExist())
+                .andExpect(jsonPath("$[0].booker").doesNotExist());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByOwner_whenInvokedWithCursorAndFields_thenReturnNextCursorOfFullBooking() {
+        ReturnBookingDto lastBooking = returnBookingDtoWithStart();
+
+        when(bookingService.scrollAllByOwnerId(anyLong(), any(), anyString(), any()))
+                .thenReturn(List.of(lastBooking));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .param("cursor", "")
+                        .param("fields", "status"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(lastBooking).encode()));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByBookerId_whenInvokedWithUnknownField_thenReturnBadRequest() {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("fields", "id,owner"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).findAllByBookerId(anyLong(), any(), any(), any());
+    }
+
+    private ReturnBookingDto returnBookingDtoWithStart() {
+        return ReturnBookingDto.builder()
+                .id(10L)
+                .start(LocalDateTime.of(2024, 1, 2, 12, 0))
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllByBookerId_whenNdjsonAccepted_thenWriteBookingPerLine() {
+        doAnswer(streamOf(listReturnBookingDtos))
+                .when(bookingService).streamAllByBookerId(anyLong(), any(), any());
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(listReturnBookingDtos.get(0)) + "\n"));
+    }
+
+    private static Answer<Void> streamOf(List<ReturnBookingDto> bookings) {
+        return invocation -> {
+            Consumer<ReturnBookingDto> consumer = invocation.getArgument(2);
+            bookings.forEach(consumer);
+            return null;
+        };
+    }
+}
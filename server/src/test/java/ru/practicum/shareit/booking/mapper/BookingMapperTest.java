@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.mapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -59,11 +62,21 @@ public class BookingMapperTest {
         assertEquals(booking.getId(), returnBookingDto.getId());
         assertEquals(booking.getStart(), returnBookingDto.getStart());
         assertEquals(booking.getEnd(), returnBookingDto.getEnd());
-        assertEquals(booking.getItem(), returnBookingDto.getItem());
-        assertEquals(booking.getBooker(), returnBookingDto.getBooker());
+        assertEquals(new BookingItemDto(item.getId(), item.getName()), returnBookingDto.getItem());
+        assertEquals(new BookerDto(user.getId()), returnBookingDto.getBooker());
         assertEquals(booking.getStatus(), returnBookingDto.getStatus());
     }
 
+    @Test
+    public void testToReturnBookingDtoFromListRow() {
+        BookingDtoForList row = new BookingDtoForList(booking.getId(), booking.getStart(), booking.getEnd(),
+                item.getId(), item.getName(), user.getId(), booking.getStatus());
+
+        ReturnBookingDto returnBookingDto = bookingMapper.toReturnBookingDto(row);
+
+        assertEquals(bookingMapper.toReturnBookingDto(booking), returnBookingDto);
+    }
+
     @Test
     public void testToBooking() {
         Booking mappedBooking = bookingMapper.toBooking(receivingBookingDto, user, item, BookingStatus.APPROVED);
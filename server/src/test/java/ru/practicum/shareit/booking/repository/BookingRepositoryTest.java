@@ -1,13 +1,28 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -18,12 +33,24 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.hasBookerId;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.hasItemOwnerId;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.repository.BookingRepositoryTest$RecordingStatementInspector")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class BookingRepositoryTest {
+    private static final Sort ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
     @Autowired
     private BookingRepository bookingRepository;
     @Autowired
@@ -32,6 +59,8 @@ class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private TestEntityManager entityManager;
     private final User booker = User.builder()
             .name("UserName")
             .email("email@mail.com")
@@ -94,185 +123,374 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllCurrentByBooker_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(currentBooking);
-        Collection<Booking> actual = bookingRepository.findAllCurrentByBooker(booker);
+    void findAll_whenBookerAndAllStateWithoutPagination_thenReturnAllBookingsOrderedByStartDesc() {
+        Collection<Booking> expected = List.of(futureBooking, waitingBooking, pastBooking, currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.ALL, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllCurrentByBooker_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(currentBooking);
-        Collection<Booking> actual = bookingRepository.findAllCurrentByBooker(booker, PageRequest.of(0, 10)).getContent();
+    void findAll_whenBookerAndAllStateWithPagination_thenReturnAllBookingsOrderedByStartDesc() {
+        Collection<Booking> expected = List.of(futureBooking, waitingBooking, pastBooking, currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.ALL, LocalDateTime.now())), PageRequest.of(0, 10, ORDER)).getContent();
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndEndBeforeOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(booker, LocalDateTime.now());
+    void findAll_whenBookerAndCurrentState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.CURRENT, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndEndBeforeOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
+    void findAll_whenBookerAndPastState_thenReturnCollectionBooking() {
         Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(booker, LocalDateTime.now(), PageRequest.of(0, 10)).getContent();
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.PAST, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndStartAfterOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
+    void findAll_whenBookerAndFutureState_thenReturnCollectionBooking() {
         Collection<Booking> expected = List.of(futureBooking, waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(booker, LocalDateTime.now());
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.FUTURE, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndStartAfterOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(futureBooking, waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(booker, LocalDateTime.now(), PageRequest.of(0, 10)).getContent();
+    void findAll_whenBookerAndWaitingState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(waitingBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.WAITING, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndStatusOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING);
+    void findAll_whenBookerAndRejectedState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(pastBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasBookerId(booker.getId()).and(inState(BookingState.REJECTED, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByBookerAndStatusOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING, PageRequest.of(0, 10)).getContent();
+    void findAll_whenItemOwnerAndAllStateWithoutPagination_thenReturnAllBookingsOrderedByStartDesc() {
+        Collection<Booking> expected = List.of(futureBooking, waitingBooking, pastBooking, currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByItemOwnerOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED);
+    void findAll_whenItemOwnerAndAllStateWithPagination_thenReturnAllBookingsOrderedByStartDesc() {
+        Collection<Booking> expected = List.of(futureBooking, waitingBooking, pastBooking, currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now())), PageRequest.of(0, 10, ORDER)).getContent();
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByItemOwnerOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED, PageRequest.of(0, 10)).getContent();
+    void findAll_whenItemOwnerAndCurrentState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(currentBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.CURRENT, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllCurrentByOwner_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(currentBooking);
-        Collection<Booking> actual = bookingRepository.findAllCurrentByOwner(owner);
+    void findAll_whenItemOwnerAndPastState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(pastBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.PAST, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllCurrentByOwner_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(currentBooking);
-        Collection<Booking> actual = bookingRepository.findAllCurrentByOwner(owner, PageRequest.of(0, 10)).getContent();
+    void findAll_whenItemOwnerAndFutureState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(futureBooking, waitingBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.FUTURE, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByItemOwnerAndEndBeforeOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(owner, LocalDateTime.now());
+    void findAll_whenItemOwnerAndWaitingState_thenReturnCollectionBooking() {
+        Collection<Booking> expected = List.of(waitingBooking);
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.WAITING, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByItemOwnerAndEndBeforeOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
+    void findAll_whenItemOwnerAndRejectedState_thenReturnCollectionBooking() {
         Collection<Booking> expected = List.of(pastBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(owner, LocalDateTime.now(), PageRequest.of(0, 10)).getContent();
+        Collection<Booking> actual = bookingRepository.findAll(hasItemOwnerId(owner.getId()).and(inState(BookingState.REJECTED, LocalDateTime.now())), ORDER);
 
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByItemOwnerAndStartAfterOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(futureBooking, waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(owner, LocalDateTime.now());
+    void findAll_whenInvokedWithAnotherBooker_thenReturnEmptyCollection() {
+        assertTrue(bookingRepository.findAll(hasBookerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now())), ORDER).isEmpty());
+    }
 
-        assertFalse(actual.isEmpty());
-        assertEquals(expected, actual);
+    @Test
+    void inState_whenInvokedWithUnsupportedState_thenThrowBadRequestException() {
+        assertThrows(BadRequestException.class, () -> inState(BookingState.UNSUPPORTED_STATUS, LocalDateTime.now()));
     }
 
     @Test
-    void findAllByItemOwnerAndStartAfterOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(futureBooking, waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(owner, LocalDateTime.now(), PageRequest.of(0, 10)).getContent();
+    void findTop1ByItemAndBookerAndEndBefore() {
+        Booking actual = bookingRepository.findTop1ByItemAndBookerAndEndBefore(item, booker, LocalDateTime.now()).get();
 
-        assertFalse(actual.isEmpty());
-        assertEquals(expected, actual);
+        assertEquals(pastBooking, actual);
     }
 
     @Test
-    void findAllByItemOwnerAndStatusOrderByStartDesc_whenInvokedWithoutPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING);
+    void findLastAndNextByItemIds_whenInvoked_thenReturnOnlyLastAndNextBookingPerItem() {
+        Booking olderPastBooking = Booking.builder()
+                .start(LocalDateTime.now().minusDays(10))
+                .end(LocalDateTime.now().minusDays(9))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        Booking nextBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        Booking laterBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        bookingRepository.saveAll(List.of(olderPastBooking, nextBooking, laterBooking));
+
+        Collection<BookingDtoForItem> actual = bookingRepository.findLastAndNextByItemIds(List.of(item.getId()),
+                LocalDateTime.now(), BookingStatus.APPROVED);
+
+        assertEquals(List.of(currentBooking.getId(), nextBooking.getId()),
+                actual.stream().map(BookingDtoForItem::getId).collect(Collectors.toList()));
+        assertTrue(actual.stream().allMatch(booking -> booking.getItemId() == item.getId()
+                && booking.getBookerId() == booker.getId()));
+    }
 
-        assertFalse(actual.isEmpty());
-        assertEquals(expected, actual);
+    @Test
+    void findLastAndNextByItemIds_whenInvokedWithUnknownItem_thenReturnEmptyCollection() {
+        assertTrue(bookingRepository.findLastAndNextByItemIds(List.of(100L), LocalDateTime.now(), BookingStatus.APPROVED)
+                .isEmpty());
     }
 
     @Test
-    void findAllByItemOwnerAndStatusOrderByStartDesc_whenInvokedWithPagination_thenReturnCollectionBooking() {
-        Collection<Booking> expected = List.of(waitingBooking);
-        Collection<Booking> actual = bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING, PageRequest.of(0, 10)).getContent();
+    void findBy_whenScrolledByKeyset_thenReturnConsecutiveWindows() {
+        entityManager.flush();
+        entityManager.clear();
+        Specification<Booking> specification = hasBookerId(booker.getId()).and(inState(BookingState.ALL, LocalDateTime.now()));
+        Window<Booking> first = bookingRepository.findBy(specification, query -> query.sortBy(ORDER).limit(2)
+                .scroll(ScrollPosition.keyset()));
 
-        assertFalse(actual.isEmpty());
-        assertEquals(expected, actual);
+        assertEquals(List.of(futureBooking.getId(), waitingBooking.getId()), first.map(Booking::getId).getContent());
+        assertTrue(first.hasNext());
+
+        Window<Booking> second = bookingRepository.findBy(specification, query -> query.sortBy(ORDER).limit(2)
+                .scroll(first.positionAt(first.size() - 1)));
+
+        assertEquals(List.of(pastBooking.getId(), currentBooking.getId()), second.map(Booking::getId).getContent());
+        assertFalse(second.hasNext());
     }
 
     @Test
-    void findTop1ByItemAndBookerAndEndBefore() {
-        Booking actual = bookingRepository.findTop1ByItemAndBookerAndEndBefore(item, booker, LocalDateTime.now()).get();
+    void findBy_whenOwnerScrolledByKeysetWithWaitingState_thenReturnWindow() {
+        Specification<Booking> specification = hasItemOwnerId(owner.getId()).and(inState(BookingState.WAITING, LocalDateTime.now()));
+        Window<Booking> actual = bookingRepository.findBy(specification, query -> query.sortBy(ORDER).limit(10)
+                .scroll(ScrollPosition.keyset()));
 
-        assertEquals(pastBooking, actual);
+        assertEquals(List.of(waitingBooking), actual.getContent());
+        assertFalse(actual.hasNext());
+    }
+
+    @Test
+    void findById_whenInvoked_thenLoadItemInOneQuery() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Booking actual = bookingRepository.findById(currentBooking.getId()).get();
+
+        assertFetched(actual);
     }
 
     @Test
-    void findTop1ByItemAndStartAfterAndStatusOrderByStartAsc() {
-        Booking actual = bookingRepository.findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(item, LocalDateTime.now(), BookingStatus.WAITING).get();
+    void findAllForList_whenItemOwner_thenReturnRowsWithoutLoadingEntities() {
+        entityManager.flush();
+        entityManager.clear();
+        Specification<Booking> specification = hasItemOwnerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now()));
+        List<Booking> expected = bookingRepository.findAll(specification, ORDER);
+        entityManager.clear();
+
+        List<BookingDtoForList> actual = bookingRepository.findAllForList(specification, ORDER);
+
+        assertEquals(expected.stream().map(Booking::getId).toList(), actual.stream().map(BookingDtoForList::getId).toList());
+        assertEquals(new BookingDtoForList(expected.get(0).getId(), expected.get(0).getStart(), expected.get(0).getEnd(),
+                item.getId(), item.getName(), booker.getId(), expected.get(0).getStatus()), actual.get(0));
+        assertEquals(0, entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContext().getNumberOfManagedEntities());
+    }
 
-        assertEquals(waitingBooking, actual);
+    @Test
+    void findAllForList_whenItemOwnerPaged_thenJoinItemsOnceWithoutCount() {
+        entityManager.flush();
+        entityManager.clear();
+        Specification<Booking> specification = hasItemOwnerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now()));
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        List<BookingDtoForList> actual = bookingRepository.findAllForList(specification, PageRequest.of(0, 2, ORDER));
+
+        assertEquals(2, actual.size());
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertEquals(1, statements.size());
+        assertEquals(1, countMatches(statements.get(0), "join items"), statements.get(0));
     }
 
     @Test
-    void findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc() {
-        Booking actual = bookingRepository.findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(item, LocalDateTime.now(), BookingStatus.REJECTED).get();
+    void findAllForList_whenAfterCursor_thenReturnNextRowsInOrder() {
+        Specification<Booking> specification = hasBookerId(booker.getId()).and(inState(BookingState.ALL, LocalDateTime.now()));
+        List<Long> all = bookingRepository.findAllForList(specification, ORDER).stream().map(BookingDtoForList::getId).toList();
+
+        List<BookingDtoForList> first = bookingRepository.findAllForList(specification, PageRequest.of(0, 2, ORDER));
+        BookingDtoForList last = first.get(first.size() - 1);
+        List<BookingDtoForList> next = bookingRepository.findAllForList(
+                specification.and(after(last.getStart(), last.getId())), PageRequest.of(0, 2, ORDER));
+
+        assertEquals(all.subList(0, Math.min(4, all.size())), Stream.concat(first.stream(), next.stream())
+                .map(BookingDtoForList::getId)
+                .toList());
+    }
 
-        assertEquals(pastBooking, actual);
+    @Test
+    void streamAllForList_whenInvoked_thenReturnSameRowsAsList() {
+        Specification<Booking> specification = hasItemOwnerId(owner.getId()).and(inState(BookingState.ALL, LocalDateTime.now()));
+
+        try (Stream<BookingDtoForList> actual = bookingRepository.streamAllForList(specification, ORDER)) {
+            assertEquals(bookingRepository.findAllForList(specification, ORDER), actual.toList());
+        }
+    }
+
+    @Test
+    void findIntervalsByItemIdAndStatusIn_whenInvoked_thenReturnIntervalsInStatuses() {
+        Collection<BookingInterval> actual = bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(),
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING));
+
+        assertEquals(Set.of(currentBooking.getId(), waitingBooking.getId()), actual.stream()
+                .map(BookingInterval::getBookingId)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void existsOverlapping_whenApprovedBookingOverlaps_thenReturnTrue() {
+        assertTrue(bookingRepository.existsOverlapping(item.getId(), waitingBooking.getStart().minusDays(2),
+                waitingBooking.getEnd(), BookingStatus.APPROVED, waitingBooking.getId()));
+    }
+
+    @Test
+    void existsOverlapping_whenPeriodStartsAtApprovedEnd_thenReturnFalse() {
+        BookingInterval approved = bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(),
+                List.of(BookingStatus.APPROVED)).iterator().next();
+
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), approved.getEnd(), approved.getEnd().plusDays(1),
+                BookingStatus.APPROVED, waitingBooking.getId()));
+    }
+
+    @Test
+    void existsOverlapping_whenOnlyTheBookingItselfOverlaps_thenReturnFalse() {
+        assertFalse(bookingRepository.existsOverlapping(item.getId(), currentBooking.getStart(), currentBooking.getEnd(),
+                BookingStatus.APPROVED, currentBooking.getId()));
+    }
+
+    @Test
+    void findAllByIdIn_whenInvoked_thenReturnBookingsWithItem() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Booking> actual = bookingRepository.findAllByIdIn(List.of(waitingBooking.getId(), futureBooking.getId(), -1L));
+
+        assertEquals(Set.of(waitingBooking.getId(), futureBooking.getId()),
+                actual.stream().map(Booking::getId).collect(Collectors.toSet()));
+        actual.forEach(this::assertFetched);
+    }
+
+    @Test
+    void findOverlappingByItemIds_whenInvoked_thenReturnOverlappingBookingsInStatus() {
+        Collection<BookingDtoForItem> actual = bookingRepository.findOverlappingByItemIds(List.of(item.getId()),
+                BookingStatus.APPROVED, waitingBooking.getStart().minusDays(2), waitingBooking.getEnd());
+
+        assertEquals(List.of(currentBooking.getId()), actual.stream().map(BookingDtoForItem::getId).collect(Collectors.toList()));
+        assertEquals(item.getId(), actual.iterator().next().getItemId());
+        assertTrue(bookingRepository.findOverlappingByItemIds(List.of(item.getId()), BookingStatus.APPROVED,
+                waitingBooking.getStart().plusHours(1), waitingBooking.getEnd()).isEmpty());
+    }
+
+    @Test
+    void incrementVersion_whenCommitted_thenIncrementItemVersion() {
+        entityManager.flush();
+        entityManager.clear();
+        Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+        long version = loaded.getVersion();
+
+        itemRepository.incrementVersion(loaded);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertEquals(version + 1, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    private void assertFetched(Booking booking) {
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertFalse(booking.getItem() instanceof HibernateProxy);
+        assertTrue(util.isLoaded(booking, "item"));
+        assertNotNull(booking.getBooker().getId());
+        assertFalse(util.isLoaded(booking.getBooker()));
+    }
+
+    private static int countMatches(String sql, String fragment) {
+        Matcher matcher = Pattern.compile(Pattern.quote(fragment)).matcher(sql.toLowerCase());
+        int matches = 0;
+        while (matcher.find()) {
+            matches++;
+        }
+        return matches;
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(properties = "shareit.cache.l2.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingApprovalConcurrencyTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner." + System.nanoTime() + "@email.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker." + System.nanoTime() + "@email.com").build());
+        item = itemRepository.save(Item.builder().name("Item").description("Description").available(true).owner(owner).build());
+    }
+
+    @Test
+    void statusUpdate_whenBookingsApprovedOneAfterAnother_thenApproveBoth() {
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                Booking.builder().start(start).end(start.plusDays(1)).item(item).booker(booker).status(BookingStatus.WAITING).build(),
+                Booking.builder().start(start.plusDays(1)).end(start.plusDays(2)).item(item).booker(booker).status(BookingStatus.WAITING).build()));
+
+        for (Booking booking : bookings) {
+            assertEquals(BookingStatus.APPROVED, bookingService.statusUpdate(owner.getId(), booking.getId(), true).getStatus());
+        }
+    }
+
+    @Test
+    void statusUpdateAll_whenOverlappingBookingsApprovedAtOnce_thenApproveOnlyTheFirst() {
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                Booking.builder().start(start).end(start.plusDays(2)).item(item).booker(booker).status(BookingStatus.WAITING).build(),
+                Booking.builder().start(start.plusDays(1)).end(start.plusDays(3)).item(item).booker(booker).status(BookingStatus.WAITING).build(),
+                Booking.builder().start(start.plusDays(2)).end(start.plusDays(4)).item(item).booker(booker).status(BookingStatus.WAITING).build()));
+        List<Long> bookingIds = bookings.stream().map(Booking::getId).toList();
+        long itemVersion = itemRepository.findById(item.getId()).orElseThrow().getVersion();
+
+        List<BookingStatusResultDto> results = bookingService.statusUpdateAll(owner.getId(),
+                BookingStatusUpdateDto.builder().bookingIds(bookingIds).approved(true).build());
+
+        assertEquals(List.of(200, 409, 200), results.stream().map(BookingStatusResultDto::getCode).toList());
+        assertEquals(List.of(BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.APPROVED),
+                bookingIds.stream().map(id -> bookingRepository.findById(id).orElseThrow().getStatus()).toList());
+        assertEquals(itemVersion + 1, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void statusUpdate_whenOverlappingBookingsApprovedConcurrently_thenApproveOnlyOne() throws Exception {
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                Booking.builder().start(start).end(start.plusDays(2)).item(item).booker(booker).status(BookingStatus.WAITING).build(),
+                Booking.builder().start(start.plusDays(1)).end(start.plusDays(3)).item(item).booker(booker).status(BookingStatus.WAITING).build()));
+
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> approvals = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(bookings.size());
+        try {
+            for (Booking booking : bookings) {
+                approvals.add(executor.submit(() -> {
+                    ready.await();
+                    return bookingService.statusUpdate(owner.getId(), booking.getId(), true);
+                }));
+            }
+            ready.countDown();
+
+            int conflicts = 0;
+            for (Future<?> approval : approvals) {
+                try {
+                    approval.get();
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictException.class, e.getCause());
+                    conflicts++;
+                }
+            }
+            assertEquals(1, conflicts);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long approved = bookingRepository.findAllById(bookings.stream().map(Booking::getId).toList()).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count();
+        assertEquals(1, approved);
+    }
+
+    @Test
+    void statusUpdate_whenOverlappingApprovalCommitsFirst_thenThrowConflictException() throws Exception {
+        assumeTrue(isPostgres(), "The overlap exclusion constraint exists on PostgreSQL only");
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                Booking.builder().start(start).end(start.plusDays(2)).item(item).booker(booker).status(BookingStatus.WAITING).build(),
+                Booking.builder().start(start.plusDays(1)).end(start.plusDays(3)).item(item).booker(booker).status(BookingStatus.WAITING).build()));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection concurrent = dataSource.getConnection()) {
+            // Approves the first booking in a transaction the service cannot see yet, so its own overlap check passes
+            // and only the exclusion constraint stops the second approval once this one commits.
+            concurrent.setAutoCommit(false);
+            try (PreparedStatement approve = concurrent.prepareStatement("UPDATE bookings SET status = 'APPROVED' WHERE id = ?")) {
+                approve.setLong(1, bookings.get(0).getId());
+                approve.executeUpdate();
+            }
+            Future<?> approval = executor.submit(() -> bookingService.statusUpdate(owner.getId(), bookings.get(1).getId(), true));
+            awaitLockWait();
+            concurrent.commit();
+
+            ExecutionException e = assertThrows(ExecutionException.class, approval::get);
+            assertInstanceOf(ConflictException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(BookingStatus.APPROVED, BookingStatus.WAITING),
+                bookings.stream().map(booking -> bookingRepository.findById(booking.getId()).orElseThrow().getStatus()).toList());
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                    + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("The approval never waited for the concurrent transaction");
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL")));
+    }
+}
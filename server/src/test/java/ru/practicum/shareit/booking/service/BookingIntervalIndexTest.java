@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private final long itemId = 1L;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final Booking booking = Booking.builder()
+            .id(2L)
+            .start(start.plusDays(1))
+            .end(start.plusDays(2))
+            .item(Item.builder().id(itemId).build())
+            .status(BookingStatus.WAITING)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void hasOverlap_whenCalledRepeatedly_thenLoadItemOnlyOnce() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(1L, start, start.plusDays(1), BookingStatus.APPROVED)));
+
+        assertTrue(bookingIntervalIndex.hasOverlap(itemId, start.minusHours(1), start.plusHours(1)));
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, start.plusDays(1), start.plusDays(3)));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection());
+    }
+
+    @Test
+    void hasOverlap_whenOnlyWaitingBookingOverlaps_thenReturnFalse() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(1L, start, start.plusDays(1), BookingStatus.WAITING)));
+
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, start, start.plusDays(1)));
+        assertEquals(1, bookingIntervalIndex.findOverlapping(itemId, start, start.plusDays(1)).size());
+    }
+
+    @Test
+    void update_whenBookingCreatedAndApproved_thenFollowStatus() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection())).thenReturn(List.of());
+        assertTrue(bookingIntervalIndex.findOverlapping(itemId, start, start.plusDays(5)).isEmpty());
+
+        bookingIntervalIndex.update(booking);
+        assertEquals(List.of(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), BookingStatus.WAITING)),
+                bookingIntervalIndex.findOverlapping(itemId, start, start.plusDays(5)));
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingIntervalIndex.update(booking);
+        assertEquals(1, bookingIntervalIndex.findOverlapping(itemId, start, start.plusDays(5)).size());
+        assertTrue(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void update_whenBookingRejected_thenDropFromIndex() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), BookingStatus.APPROVED)));
+        assertTrue(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingIntervalIndex.update(booking);
+
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+        assertTrue(bookingIntervalIndex.findOverlapping(itemId, start, start.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void invalidate_whenItemLoaded_thenLoadItAgainOnNextUse() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), BookingStatus.APPROVED)))
+                .thenReturn(List.of());
+        assertTrue(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+
+        bookingIntervalIndex.invalidate(itemId);
+
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, booking.getStart(), booking.getEnd()));
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatusIn(eq(itemId), anyCollection());
+    }
+}
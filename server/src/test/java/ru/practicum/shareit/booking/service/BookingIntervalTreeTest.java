@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalTreeTest {
+    private final LocalDateTime origin = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void hasOverlap_whenPeriodTouchesBooking_thenReturnFalse() {
+        BookingIntervalTree tree = new BookingIntervalTree(List.of(interval(1, 10, 20)));
+
+        assertFalse(tree.hasOverlap(hour(20), hour(30)));
+        assertFalse(tree.hasOverlap(hour(0), hour(10)));
+        assertTrue(tree.hasOverlap(hour(19), hour(30)));
+        assertTrue(tree.hasOverlap(hour(12), hour(13)));
+    }
+
+    @Test
+    void findOverlapping_whenInvoked_thenReturnOverlappingOrderedByStart() {
+        BookingIntervalTree tree = new BookingIntervalTree(List.of(
+                interval(3, 40, 50), interval(1, 0, 100), interval(2, 10, 20), interval(4, 60, 70)));
+
+        List<Long> actual = tree.findOverlapping(hour(15), hour(45)).stream()
+                .map(BookingInterval::getBookingId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(1L, 2L, 3L), actual);
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenNoLongerOverlap() {
+        BookingInterval removed = interval(1, 10, 20);
+        BookingIntervalTree tree = new BookingIntervalTree(List.of(removed, interval(2, 30, 40)));
+
+        tree.remove(removed.getBookingId());
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.hasOverlap(hour(10), hour(20)));
+        assertTrue(tree.hasOverlap(hour(35), hour(36)));
+    }
+
+    @Test
+    void add_whenBookingAddedAgain_thenReplacePreviousPeriod() {
+        BookingIntervalTree tree = new BookingIntervalTree(List.of(interval(1, 10, 20)));
+
+        tree.add(interval(1, 30, 40));
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.hasOverlap(hour(10), hour(20)));
+        assertTrue(tree.hasOverlap(hour(30), hour(40)));
+    }
+
+    @Test
+    void findOverlapping_whenManyBookingsAddedAndRemoved_thenMatchFullScan() {
+        Random random = new Random(42);
+        List<BookingInterval> expected = new ArrayList<>();
+        BookingIntervalTree tree = new BookingIntervalTree(List.of());
+
+        for (long id = 1; id <= 2000; id++) {
+            int start = random.nextInt(10_000);
+            BookingInterval interval = interval(id, start, start + 1 + random.nextInt(200));
+            tree.add(interval);
+            expected.add(interval);
+            if (random.nextInt(4) == 0) {
+                BookingInterval removed = expected.remove(random.nextInt(expected.size()));
+                tree.remove(removed.getBookingId());
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(10_000);
+            LocalDateTime from = hour(start);
+            LocalDateTime to = hour(start + 1 + random.nextInt(100));
+            List<BookingInterval> overlapping = expected.stream()
+                    .filter(interval -> interval.overlaps(from, to))
+                    .sorted(Comparator.comparing(BookingInterval::getStart).thenComparing(BookingInterval::getBookingId))
+                    .collect(Collectors.toList());
+
+            assertEquals(overlapping, tree.findOverlapping(from, to));
+            assertEquals(!overlapping.isEmpty(), tree.hasOverlap(from, to));
+        }
+    }
+
+    private BookingInterval interval(long id, int startHour, int endHour) {
+        return new BookingInterval(id, hour(startHour), hour(endHour), BookingStatus.APPROVED);
+    }
+
+    private LocalDateTime hour(int hour) {
+        return origin.plusHours(hour);
+    }
+}
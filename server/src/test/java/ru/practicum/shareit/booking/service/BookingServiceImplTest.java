@@ -1,31 +1,55 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForList;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.booking.dto.ReceivingBookingDto;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.ReturnBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.concurrency.OptimisticLockRetry;
 import ru.practicum.shareit.exception.exception.BadRequestException;
+import ru.practicum.shareit.exception.exception.ConflictException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,9 +61,17 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRepository itemRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+    @Spy
+    private ChunkedStreamReader chunkedStreamReader = new ChunkedStreamReader(mock(EntityManager.class), 500);
     @InjectMocks
     private BookingServiceImpl bookingService;
     private final long userId = 1L;
@@ -78,11 +110,27 @@ class BookingServiceImplTest {
             .id(booking.getId())
             .start(booking.getStart())
             .end((booking.getEnd()))
-            .item(booking.getItem())
-            .booker(booking.getBooker())
+            .item(new BookingItemDto(item.getId(), item.getName()))
+            .booker(new BookerDto(user.getId()))
+            .status(booking.getStatus())
+            .build();
+
+    private final BookingDtoForList bookingRow = BookingDtoForList.builder()
+            .id(bookingId)
+            .start(booking.getStart())
+            .end(booking.getEnd())
+            .itemId(itemId)
+            .itemName(item.getName())
+            .bookerId(userId)
             .status(booking.getStatus())
             .build();
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(optimisticLockRetry.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @Test
     void create_whenNormallyInvoked_thenReturnBookingDto() {
         User userForTest = User.builder()
@@ -90,13 +138,13 @@ class BookingServiceImplTest {
                 .name("NameForBooker")
                 .email("booker@email.com")
                 .build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userForTest));
+        when(userRepository.findById(userForTest.getId())).thenReturn(Optional.of(userForTest));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(bookingMapper.toBooking(receivingBookingDto, userForTest, item, BookingStatus.WAITING)). thenReturn(booking);
         when(bookingRepository.save(booking)).thenReturn(booking);
         when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
 
-        ReturnBookingDto actual = bookingService.create(userId, receivingBookingDto);
+        ReturnBookingDto actual = bookingService.create(userForTest.getId(), receivingBookingDto);
 
         assertEquals(returnBookingDto, actual);
 
@@ -104,7 +152,8 @@ class BookingServiceImplTest {
         verify(itemRepository, times(1)).findById(anyLong());
         verify(bookingMapper, times(1)).toBooking(receivingBookingDto, userForTest, item, BookingStatus.WAITING);
         verify(bookingRepository, times(1)).save(any());
-        verify(bookingMapper, times(1)).toReturnBookingDto(any());
+        verify(bookingIntervalIndex, times(1)).update(booking);
+        verify(bookingMapper, times(1)).toReturnBookingDto(any(Booking.class));
     }
 
     @Test
@@ -150,6 +199,36 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void create_whenItemIsAlreadyBooked_thenReturnConflictException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(User.builder().id(2L).build()));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.hasOverlap(itemId, receivingBookingDto.getStart(), receivingBookingDto.getEnd()))
+                .thenReturn(true);
+        when(bookingRepository.existsOverlapping(itemId, receivingBookingDto.getStart(), receivingBookingDto.getEnd(),
+                BookingStatus.APPROVED, 0L)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.create(2L, receivingBookingDto));
+
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void create_whenIndexIsStale_thenReloadItAndSaveBooking() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(User.builder().id(2L).build()));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.hasOverlap(itemId, receivingBookingDto.getStart(), receivingBookingDto.getEnd()))
+                .thenReturn(true);
+        when(bookingRepository.existsOverlapping(itemId, receivingBookingDto.getStart(), receivingBookingDto.getEnd(),
+                BookingStatus.APPROVED, 0L)).thenReturn(false);
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookingService.create(2L, receivingBookingDto);
+
+        verify(bookingIntervalIndex).invalidate(itemId);
+        verify(bookingRepository).save(any());
+    }
+
     @Test
     void create_whenItemIsNotAvailable_thenReturnBadRequestException() {
         when(userRepository.findById(anyLong()))
@@ -175,7 +254,7 @@ class BookingServiceImplTest {
 
     @Test
     void statusUpdate_whenInvokedWithUnknownUser_thenReturnBadRequestException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(BadRequestException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
 
@@ -184,7 +263,7 @@ class BookingServiceImplTest {
 
     @Test
     void statusUpdate_whenInvokedWithUnknownBooking_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
@@ -200,10 +279,10 @@ class BookingServiceImplTest {
                 .email("Owner@email.com")
                 .build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(notOwner));
+        when(userExistenceCache.exists(notOwner.getId())).thenReturn(true);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
-        assertThrows(NotFoundException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
+        assertThrows(NotFoundException.class, () -> bookingService.statusUpdate(notOwner.getId(), bookingId, true));
 
         verify(bookingRepository, never()).save(any());
     }
@@ -219,7 +298,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.APPROVED)
                 .build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingForTest));
 
         assertThrows(BadRequestException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
@@ -241,12 +320,12 @@ class BookingServiceImplTest {
                 .id(bookingForTest.getId())
                 .start(bookingForTest.getStart())
                 .end((bookingForTest.getEnd()))
-                .item(item)
-                .booker(user)
+                .item(new BookingItemDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user.getId()))
                 .status(bookingForTest.getStatus())
                 .build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any())).thenReturn(bookingForTest);
         when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDtoForTest);
@@ -255,7 +334,7 @@ class BookingServiceImplTest {
 
         assertEquals(returnBookingDtoForTest,actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
         verify(bookingRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(1)).save(any());
         verify(bookingMapper, times(1)).toReturnBookingDto(booking);
@@ -263,7 +342,7 @@ class BookingServiceImplTest {
 
     @Test
     void statusUpdate_whenBookingStatusApproved_thenReturnBookingDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any())).thenReturn(booking);
         when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
@@ -272,964 +351,481 @@ class BookingServiceImplTest {
 
         assertEquals(returnBookingDto,actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
         verify(bookingRepository, times(1)).findById(anyLong());
+        verify(itemRepository, times(1)).incrementVersion(item);
         verify(bookingRepository, times(1)).save(any());
+        verify(bookingIntervalIndex, times(1)).update(booking);
         verify(bookingMapper, times(1)).toReturnBookingDto(booking);
     }
 
     @Test
-    void findById_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+    void statusUpdate_whenApprovedBookingOverlaps_thenReturnConflictException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlapping(itemId, booking.getStart(), booking.getEnd(), BookingStatus.APPROVED, bookingId))
+                .thenReturn(true);
 
-        assertThrows(NotFoundException.class, () -> bookingService.findById(userId, bookingId));
+        assertThrows(ConflictException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
 
-        verify(bookingRepository, never()).findById(bookingId);
+        verify(itemRepository, times(1)).incrementVersion(item);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).update(any());
     }
 
     @Test
-    void findById_whenInvokedWithUnknownBooking_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+    void statusUpdate_whenOverlapConstraintViolated_thenReturnConflictException() {
+        when(optimisticLockRetry.execute(eq("booking.status-update"), any()))
+                .thenThrow(new DataIntegrityViolationException("Overlapping approval",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
 
-        assertThrows(NotFoundException.class, () -> bookingService.findById(userId, bookingId));
+        assertThrows(ConflictException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
+    }
 
-        verify(bookingMapper, never()).toReturnBookingDto(booking);
+    @Test
+    void statusUpdate_whenOtherConstraintViolated_thenRethrowException() {
+        when(optimisticLockRetry.execute(eq("booking.status-update"), any()))
+                .thenThrow(new DataIntegrityViolationException("Missing booker",
+                        new SQLException("violates foreign key constraint", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.statusUpdate(userId, bookingId, true));
     }
 
     @Test
-    void findById_whenUserDoesHaveNotAccess_thenReturnNotFoundException() {
-        User notOwner = User.builder()
-                .id(2L)
-                .name("NameForOwner")
-                .email("Owner@email.com")
+    void statusUpdate_whenApprovedBookingRejected_thenUpdateIndex() {
+        Booking approvedBooking = Booking.builder()
+                .id(bookingId)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.APPROVED)
                 .build();
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(approvedBooking));
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(notOwner));
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        bookingService.statusUpdate(userId, bookingId, false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.findById(userId, bookingId));
-
-        verify(bookingMapper, never()).toReturnBookingDto(booking);
+        assertEquals(BookingStatus.REJECTED, approvedBooking.getStatus());
+        verify(bookingIntervalIndex, times(1)).update(approvedBooking);
+        verify(itemRepository, never()).incrementVersion(any());
     }
 
     @Test
-    void findById_whenNormallyInvoked_thenReturnBookingDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
-
-        ReturnBookingDto actual = bookingService.findById(userId, bookingId);
+    void statusUpdateAll_whenBookingsCannotBeReviewed_thenReturnErrorPerBooking() {
+        User otherOwner = User.builder().id(2L).name("OtherName").email("other@email.com").build();
+        Item otherItem = Item.builder().id(2L).name("OtherItem").available(true).owner(otherOwner).build();
+        Booking foreignBooking = Booking.builder().id(3L).start(booking.getStart()).end(booking.getEnd())
+                .item(otherItem).booker(user).status(BookingStatus.WAITING).build();
+        Booking approvedBooking = Booking.builder().id(4L).start(booking.getStart()).end(booking.getEnd())
+                .item(item).booker(user).status(BookingStatus.APPROVED).build();
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllByIdIn(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(approvedBooking, foreignBooking, booking));
+        when(bookingRepository.findOverlappingByItemIds(Set.of(itemId), BookingStatus.APPROVED, booking.getStart(), booking.getEnd()))
+                .thenReturn(List.of());
 
-        assertEquals(returnBookingDto, actual);
+        List<BookingStatusResultDto> actual = bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L, 3L, 4L, 1L))
+                .approved(true)
+                .build());
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(bookingRepository, times(1)).findById(anyLong());
-        verify(bookingMapper, times(1)).toReturnBookingDto(booking);
+        assertEquals(List.of(1L, 2L, 3L, 4L), actual.stream().map(BookingStatusResultDto::getBookingId).collect(Collectors.toList()));
+        assertEquals(List.of(200, 404, 404, 400), actual.stream().map(BookingStatusResultDto::getCode).collect(Collectors.toList()));
+        assertEquals(BookingStatus.APPROVED, actual.get(0).getStatus());
+        assertNotNull(actual.get(1).getError());
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(BookingStatus.WAITING, foreignBooking.getStatus());
+        verify(itemRepository, times(1)).incrementVersion(item);
+        verify(bookingRepository, times(1)).saveAll(List.of(booking));
+        verify(bookingIntervalIndex, times(1)).update(booking);
+        verify(bookingRepository, never()).findById(anyLong());
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithUnknownBooker_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+    void statusUpdateAll_whenApprovalsOverlap_thenApproveOnlyTheFirst() {
+        Booking overlapping = Booking.builder().id(2L).start(booking.getStart().plusDays(1)).end(booking.getEnd().plusDays(1))
+                .item(item).booker(user).status(BookingStatus.WAITING).build();
+        Booking overlappingApproved = Booking.builder().id(3L).start(booking.getEnd().plusDays(2)).end(booking.getEnd().plusDays(3))
+                .item(item).booker(user).status(BookingStatus.WAITING).build();
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(booking, overlapping, overlappingApproved));
+        when(bookingRepository.findOverlappingByItemIds(Set.of(itemId), BookingStatus.APPROVED, booking.getStart(), overlappingApproved.getEnd()))
+                .thenReturn(List.of(new BookingDtoForItem(10L, overlappingApproved.getStart().minusHours(1),
+                        overlappingApproved.getStart().plusHours(1), itemId, 2L, BookingStatus.APPROVED)));
 
-        assertThrows(NotFoundException.class, () -> bookingService.findAllByBookerId(userId, null, null, null));
+        List<BookingStatusResultDto> actual = bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L, 3L))
+                .approved(true)
+                .build());
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
+        assertEquals(List.of(200, 409, 409), actual.stream().map(BookingStatusResultDto::getCode).collect(Collectors.toList()));
+        assertEquals(BookingStatus.WAITING, overlapping.getStatus());
+        assertEquals(BookingStatus.WAITING, overlappingApproved.getStatus());
+        verify(bookingRepository, times(1)).saveAll(List.of(booking));
+        verify(itemRepository, times(1)).incrementVersion(item);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithAllStateAndWithoutPagination_thenReturnListWithALLReturnBookingDto() {
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerOrderByStartDesc(user)).thenReturn(Collections.singletonList(booking));
-        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.ALL, null, null);
+    void statusUpdateAll_whenRejected_thenRejectWithoutOverlapCheck() {
+        Booking approvedBooking = Booking.builder().id(2L).start(booking.getStart()).end(booking.getEnd())
+                .item(item).booker(user).status(BookingStatus.APPROVED).build();
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllByIdIn(Set.of(1L, 2L))).thenReturn(List.of(booking, approvedBooking));
 
-        assertEquals(expected, actual);
+        List<BookingStatusResultDto> actual = bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(1L, 2L))
+                .approved(false)
+                .build());
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
+        assertEquals(List.of(200, 200), actual.stream().map(BookingStatusResultDto::getCode).collect(Collectors.toList()));
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+        assertEquals(BookingStatus.REJECTED, approvedBooking.getStatus());
+        verify(bookingRepository, never()).findOverlappingByItemIds(any(), any(), any(), any());
+        verify(itemRepository, never()).incrementVersion(any());
+        verify(bookingIntervalIndex, times(2)).update(any());
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithAllStateAndWithPagination_thenReturnListWithALLReturnBookingDto() {
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerOrderByStartDesc(any(), any())).thenReturn(new PageImpl<>(Collections.singletonList(booking)));
-        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
+    void statusUpdateAll_whenInvokedWithUnknownUser_thenReturnBadRequestException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.ALL, from, size);
+        assertThrows(BadRequestException.class, () -> bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(List.of(bookingId))
+                .approved(true)
+                .build()));
 
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
+        verify(bookingRepository, never()).findAllByIdIn(any());
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithCurrentStateAndWithoutPagination_thenReturnListWithCurrentReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllCurrentByBooker(user)).thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+    void statusUpdateAll_whenTooManyBookings_thenReturnBadRequestException() {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
 
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.CURRENT, null, null);
+        assertThrows(BadRequestException.class, () -> bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(bookingIds)
+                .approved(true)
+                .build()));
+        assertThrows(BadRequestException.class, () -> bookingService.statusUpdateAll(userId, BookingStatusUpdateDto.builder()
+                .bookingIds(List.of())
+                .approved(true)
+                .build()));
 
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
+        verifyNoInteractions(optimisticLockRetry, bookingRepository);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithCurrentStateAndWithPagination_thenReturnListWithCurrentReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllCurrentByBooker(any(), any())).thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.CURRENT, from, size);
+    void findById_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
-        assertEquals(expected, actual);
+        assertThrows(NotFoundException.class, () -> bookingService.findById(userId, bookingId));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
+        verify(bookingRepository, never()).findById(bookingId);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithPastStateAndWithoutPagination_thenReturnListWithPastReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().minusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(any(), any()))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.PAST, null, null);
+    void findById_whenInvokedWithUnknownBooking_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
-        assertEquals(expected, actual);
+        assertThrows(NotFoundException.class, () -> bookingService.findById(userId, bookingId));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
+        verify(bookingMapper, never()).toReturnBookingDto(booking);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithPastStateAndWithPagination_thenReturnListWithPastReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().minusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
+    void findById_whenUserDoesHaveNotAccess_thenReturnNotFoundException() {
+        User notOwner = User.builder()
+                .id(2L)
+                .name("NameForOwner")
+                .email("Owner@email.com")
                 .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndEndBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.PAST, from, size);
+        when(userExistenceCache.exists(notOwner.getId())).thenReturn(true);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
-        assertEquals(expected, actual);
+        assertThrows(NotFoundException.class, () -> bookingService.findById(notOwner.getId(), bookingId));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
+        verify(bookingMapper, never()).toReturnBookingDto(booking);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithFutureStateAndWithoutPagination_thenReturnListWithFutureReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(any(), any()))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+    void findById_whenNormallyInvoked_thenReturnBookingDto() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.FUTURE, null, null);
+        ReturnBookingDto actual = bookingService.findById(userId, bookingId);
 
-        assertEquals(expected, actual);
+        assertEquals(returnBookingDto, actual);
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(bookingRepository, times(1)).findById(anyLong());
+        verify(bookingMapper, times(1)).toReturnBookingDto(booking);
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithFutureStateAndWithPagination_thenReturnListWithFutureReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStartAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.FUTURE, from, size);
+    void findAllByBookerId_whenInvokedWithUnknownBooker_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
-        assertEquals(expected, actual);
+        assertThrows(NotFoundException.class, () -> bookingService.findAllByBookerId(userId, null, null, null));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithWaitingStateAndWithoutPagination_thenReturnListWithWaitingReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void findAllByBookerId_whenInvokedWithoutPagination_thenReturnListReturnBookingDto() {
+        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStatusOrderByStartDesc(user, BookingStatus.WAITING))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Sort.class))).thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.WAITING, null, null);
+        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.ALL, null, null);
 
         assertEquals(expected, actual);
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any(), any());
+        verify(bookingRepository, times(1)).findAllForList(any(Specification.class), eq(Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"))));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithWaitingStateAndWithPagination_thenReturnListWithWaitingReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void findAllByBookerId_whenInvokedWithPagination_thenReturnListReturnBookingDto() {
+        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Pageable.class))).thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.WAITING, from, size);
+        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.CURRENT, 20, size);
 
         assertEquals(expected, actual);
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any());
+        verify(bookingRepository, times(1)).findAllForList(any(Specification.class),
+                eq(PageRequest.of(2, size, Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")))));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithRejectedStateAndWithoutPagination_thenReturnListWithRejectedReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.REJECTED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStatusOrderByStartDesc(user, BookingStatus.REJECTED))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.REJECTED, null, null);
+    void findAllByBookerId_whenInvokedWithEachSupportedState_thenQueryRepository() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Sort.class))).thenReturn(Collections.emptyList());
 
-        assertEquals(expected, actual);
+        for (BookingState state : List.of(BookingState.ALL, BookingState.CURRENT, BookingState.PAST,
+                BookingState.FUTURE, BookingState.WAITING, BookingState.REJECTED)) {
+            assertTrue(bookingService.findAllByBookerId(userId, state, null, null).isEmpty());
+        }
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(user,BookingStatus.WAITING);
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any(), any());
+        verify(bookingRepository, times(6)).findAllForList(any(Specification.class), any(Sort.class));
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithRejectedStateAndWithPagination_thenReturnListWithRejectedReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.REJECTED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerAndStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByBookerId(userId, BookingState.REJECTED, from, size);
+    void findAllByBookerId_whenInvokedWithUnknownState_thenReturnBadRequestException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
 
-        assertEquals(expected, actual);
+        assertThrows(BadRequestException.class, () -> bookingService.findAllByBookerId(userId, BookingState.UNSUPPORTED_STATUS, null, null));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(user,BookingStatus.WAITING, PageRequest.of(from / size, size));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByBookerId_whenInvokedWithUnknownState_thenReturnBadRequestException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+    void findAllByBookerId_whenInvokedWithIncorrectPagination_thenReturnBadRequestException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
 
-        assertThrows(BadRequestException.class, () -> bookingService.findAllByBookerId(userId, BookingState.UNSUPPORTED_STATUS, null, null));
+        assertThrows(BadRequestException.class, () -> bookingService.findAllByBookerId(userId, BookingState.ALL, -1, 0));
 
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByBookerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any());
-        verify(bookingRepository, never()).findAllCurrentByBooker(any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndEndBeforeOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStartAfterOrderByStartDesc(any(),any(), any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any());
-        verify(bookingRepository, never()).findAllByBookerAndStatusOrderByStartDesc(any(),any(), any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
     void findAllByOwnerId_whenInvokedWithUnknownOwner_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.findAllByBookerId(userId, null, null, null));
+        assertThrows(NotFoundException.class, () -> bookingService.findAllByOwnerId(userId, null, null, null));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
+        verify(itemRepository, never()).existsByOwnerId(anyLong());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
     }
 
     @Test
     void findAllByOwnerId_whenInvokedWithUserWithoutItems_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.emptyList());
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> bookingService.findAllByOwnerId(userId, null, null, null));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithAllStateAndWithoutPagination_thenReturnListWithALLReturnBookingDto() {
+    void findAllByOwnerId_whenInvokedWithoutPagination_thenReturnListReturnBookingDto() {
         List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerOrderByStartDesc(user)).thenReturn(Collections.singletonList(booking));
-        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Sort.class))).thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.ALL, null, null);
+        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.PAST, null, null);
 
         assertEquals(expected, actual);
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithAllStateAndWithPagination_thenReturnListWithALLReturnBookingDto() {
+    void findAllByOwnerId_whenInvokedWithPagination_thenReturnListReturnBookingDto() {
         List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerOrderByStartDesc(any(), any())).thenReturn(new PageImpl<>(Collections.singletonList(booking)));
-        when(bookingMapper.toReturnBookingDto(booking)).thenReturn(returnBookingDto);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Pageable.class))).thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.ALL, from, size);
+        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.WAITING, from, size);
 
         assertEquals(expected, actual);
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithCurrentStateAndWithoutPagination_thenReturnListWithCurrentReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void findAllByOwnerId_whenInvokedWithUnknownState_thenReturnBadRequestException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllCurrentByOwner(user)).thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.CURRENT, null, null);
-
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
+        assertThrows(BadRequestException.class, () -> bookingService.findAllByOwnerId(userId, BookingState.UNSUPPORTED_STATUS, null, null));
 
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithCurrentStateAndWithPagination_thenReturnListWithCurrentReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllCurrentByOwner(any(), any())).thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.CURRENT, from, size);
+    void findAllByOwnerId_whenInvokedWithAllStateAndWithIncorrectPagination_thenReturnBadRequestException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
 
-        assertEquals(expected, actual);
+        assertThrows(BadRequestException.class, () -> bookingService.findAllByOwnerId(userId, BookingState.ALL, -1, 0));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Sort.class));
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithPastStateAndWithoutPagination_thenReturnListWithPastReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().minusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void scrollAllByBookerId_whenInvokedWithoutCursor_thenReturnFirstWindow() {
+        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.PAST, null, null);
+        List<ReturnBookingDto> actual = bookingService.scrollAllByBookerId(userId, BookingState.ALL, null, size);
 
         assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
+        verify(bookingRepository, times(1)).findAllForList(any(Specification.class),
+                eq(PageRequest.of(0, size, Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")))));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithPastStateAndWithPagination_thenReturnListWithPastReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().minusDays(7))
-                .end(LocalDateTime.now().minusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void scrollAllByBookerId_whenInvokedWithCursor_thenReturnWindowAfterCursor() {
+        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
+        String cursor = BookingCursor.of(returnBookingDto).encode();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(),any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.PAST, from, size);
+        List<ReturnBookingDto> actual = bookingService.scrollAllByBookerId(userId, BookingState.WAITING, cursor, size);
 
         assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithFutureStateAndWithoutPagination_thenReturnListWithFutureReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void scrollAllByBookerId_whenInvokedWithInvalidCursor_thenReturnBadRequestException() {
+        assertThrows(BadRequestException.class, () -> bookingService.scrollAllByBookerId(userId, BookingState.ALL, "invalid", size));
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.FUTURE, null, null);
-
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any());
+        verify(userExistenceCache, never()).exists(anyLong());
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithFutureStateAndWithPagination_thenReturnListWithFutureReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.FUTURE, from, size);
-
-        assertEquals(expected, actual);
+    void scrollAllByBookerId_whenInvokedWithoutSize_thenReturnBadRequestException() {
+        assertThrows(BadRequestException.class, () -> bookingService.scrollAllByBookerId(userId, BookingState.ALL, "", null));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
+        verify(userExistenceCache, never()).exists(anyLong());
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithWaitingStateAndWithoutPagination_thenReturnListWithWaitingReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void scrollAllByOwnerId_whenInvokedWithPastState_thenReturnWindow() {
+        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(user, BookingStatus.WAITING))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
+        when(bookingRepository.findAllForList(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.WAITING, null, null);
+        List<ReturnBookingDto> actual = bookingService.scrollAllByOwnerId(userId, BookingState.PAST, "", size);
 
         assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any());
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithWaitingStateAndWithPagination_thenReturnListWithWaitingReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
+    void scrollAllByOwnerId_whenOwnerHasNoItems_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(false);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+        assertThrows(NotFoundException.class, () -> bookingService.scrollAllByOwnerId(userId, BookingState.ALL, "", size));
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.WAITING, from, size);
-
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any());
+        verify(bookingRepository, never()).findAllForList(any(Specification.class), any(Pageable.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithRejectedStateAndWithoutPagination_thenReturnListWithRejectedReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.REJECTED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(user, BookingStatus.REJECTED))
-                .thenReturn(Collections.singletonList(bookingForTest));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
+    void streamAllByBookerId_whenNormallyInvoked_thenPassEachBookingToConsumer() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(bookingRepository.streamAllForList(any(Specification.class), any(Sort.class))).thenReturn(Stream.of(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
+        List<ReturnBookingDto> actual = new ArrayList<>();
 
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.REJECTED, null, null);
+        bookingService.streamAllByBookerId(userId, BookingState.ALL, actual::add);
 
-        assertEquals(expected, actual);
-
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any());
+        assertEquals(List.of(returnBookingDto), actual);
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithRejectedStateAndWithPagination_thenReturnListWithRejectedReturnBookingDto() {
-        Booking bookingForTest = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusHours(10))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.REJECTED)
-                .build();
-        ReturnBookingDto returnBookingDtoForTest = ReturnBookingDto.builder()
-                .id(bookingForTest.getId())
-                .start(bookingForTest.getStart())
-                .end((bookingForTest.getEnd()))
-                .item(bookingForTest.getItem())
-                .booker(bookingForTest.getBooker())
-                .status(bookingForTest.getStatus())
-                .build();
-        List<ReturnBookingDto> expected = Collections.singletonList(returnBookingDtoForTest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(bookingForTest)));
-        when(bookingMapper.toReturnBookingDto(bookingForTest)).thenReturn(returnBookingDtoForTest);
-
-        List<ReturnBookingDto> actual = bookingService.findAllByOwnerId(userId, BookingState.REJECTED, from, size);
+    void streamAllByBookerId_whenUserNotFound_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
-        assertEquals(expected, actual);
+        assertThrows(NotFoundException.class, () -> bookingService.streamAllByBookerId(userId, BookingState.ALL, booking -> { }));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any());
+        verify(bookingRepository, never()).streamAllForList(any(Specification.class), any(Sort.class));
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithUnknownStateAndWithoutPagination_thenReturnBadRequestException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
+    void streamAllByOwnerId_whenNormallyInvoked_thenPassEachBookingToConsumer() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
+        when(bookingRepository.streamAllForList(any(Specification.class), any(Sort.class))).thenReturn(Stream.of(bookingRow));
+        when(bookingMapper.toReturnBookingDto(bookingRow)).thenReturn(returnBookingDto);
+        List<ReturnBookingDto> actual = new ArrayList<>();
 
-        assertThrows(BadRequestException.class, () -> bookingService.findAllByOwnerId(userId, BookingState.UNSUPPORTED_STATUS, null, null));
+        bookingService.streamAllByOwnerId(userId, BookingState.FUTURE, actual::add);
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any());
+        assertEquals(List.of(returnBookingDto), actual);
     }
 
     @Test
-    void findAllByOwnerId_whenInvokedWithAllStateAndWithIncorrectPagination_thenReturnBadRequestException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user)).thenReturn(Collections.singletonList(item));
+    void streamAllByOwnerId_whenOwnerHasNoItems_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(false);
 
-        assertThrows(BadRequestException.class, () -> bookingService.findAllByOwnerId(userId, BookingState.ALL, -1, 0));
+        assertThrows(NotFoundException.class, () -> bookingService.streamAllByOwnerId(userId, BookingState.ALL, booking -> { }));
 
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any());
-        verify(bookingRepository, never()).findAllByItemOwnerOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any());
-        verify(bookingRepository, never()).findAllCurrentByOwner(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartAfterOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any());
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusOrderByStartDesc(any(), any(), any());
+        verify(bookingRepository, never()).streamAllForList(any(Specification.class), any(Sort.class));
     }
-
-}
\ No newline at end of file
+}
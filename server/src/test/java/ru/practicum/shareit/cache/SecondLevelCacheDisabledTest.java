@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class SecondLevelCacheDisabledTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sessionFactory_whenCacheNotEnabled_thenSecondLevelAndQueryCachesAreOff() {
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+
+        assertFalse(options.isSecondLevelCacheEnabled());
+        assertFalse(options.isQueryCacheEnabled());
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.cache.l2.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SecondLevelCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder()
+                .name("CachedOwner")
+                .email("cached.owner." + System.nanoTime() + "@email.com")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("CachedItem")
+                .description("CachedItemDescription")
+                .available(true)
+                .owner(owner)
+                .build());
+        statistics.clear();
+    }
+
+    @Test
+    void findById_whenEntityWasLoadedBefore_thenServeItFromCache() {
+        itemRepository.findById(item.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        Item cached = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(item.getName(), cached.getName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Item.class.getName()).getHitCount() > 0);
+    }
+
+    @Test
+    void save_whenEntityIsUpdated_thenCacheReturnsNewState() {
+        itemRepository.findById(item.getId());
+        item.setName("RenamedItem");
+        itemRepository.save(item);
+
+        assertEquals("RenamedItem", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteById_whenOwnerIsDeleted_thenCascadedItemsAreEvicted() {
+        itemRepository.findById(item.getId());
+
+        userService.deleteById(owner.getId());
+
+        assertTrue(userRepository.findById(owner.getId()).isEmpty());
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteById_whenItemIsCachedAgainBeforeCommit_thenEvictItAfterCommit() {
+        itemRepository.findById(item.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.deleteById(owner.getId());
+            // Another request still sees the item until the deletion commits and caches it again.
+            assertTrue(CompletableFuture.supplyAsync(() -> itemRepository.findById(item.getId())).join().isPresent());
+            assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        });
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void findById_whenCacheIsEnabled_thenHitsAreExposedAsMetrics() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", Item.class.getName())
+                .tag("result", "hit")
+                .functionCounter());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OptimisticLockRetryTest {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @BeforeEach
+    void setUp() {
+        optimisticLockRetry = new OptimisticLockRetry(transactionManager, meterRegistry, 3, Duration.ofMillis(1));
+    }
+
+    @Test
+    void execute_whenConflictIsTransient_thenRetryInNewTransaction() {
+        String actual = optimisticLockRetry.execute("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("Stale booking");
+            }
+            return "done";
+        });
+
+        assertEquals("done", actual);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(2.0, meterRegistry.get(OptimisticLockRetry.CONFLICTS_METER)
+                .tags("operation", "test", "outcome", "retried").counter().count());
+    }
+
+    @Test
+    void execute_whenConflictPersists_thenRethrowAfterMaxAttempts() {
+        assertThrows(OptimisticLockingFailureException.class, () -> optimisticLockRetry.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("Stale booking");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get(OptimisticLockRetry.CONFLICTS_METER)
+                .tags("operation", "test", "outcome", "exhausted").counter().count());
+    }
+
+    @Test
+    void execute_whenOtherExceptionThrown_thenDoNotRetry() {
+        assertThrows(IllegalStateException.class, () -> optimisticLockRetry.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Invalid booking");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
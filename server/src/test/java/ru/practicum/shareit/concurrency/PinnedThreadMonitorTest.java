@@ -0,0 +1,39 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinnedThreadMonitorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PinnedThreadMonitor monitor = new PinnedThreadMonitor(meterRegistry, Duration.ofMillis(10));
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+
+    @Test
+    void onPinned_whenVirtualThreadBlocksInsideSynchronized_thenRecordPinnedTime() throws InterruptedException {
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertTrue(meterRegistry.get("shareit.virtual.threads.pinned").timer().count() >= 1));
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestConcurrencyLimitFilterTest {
+    private final RequestConcurrencyLimitFilter filter =
+            new RequestConcurrencyLimitFilter(1, Duration.ofMillis(50), new ObjectMapper());
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenSlotIsFree_thenPassRequestAndReleaseSlot() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), response, (request, resp) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenAllSlotsBusy_thenReturnServiceUnavailable() {
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            admitted.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), rejected,
+                (request, response) -> fail("Request must not be admitted"));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("{\"error\":\"Server is busy, try again later.\"}", rejected.getContentAsString());
+
+        release.countDown();
+        busy.join();
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenActuatorRequestedWhileAllSlotsBusy_thenPassRequest() {
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            admitted.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        CountDownLatch passed = new CountDownLatch(1);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health,
+                (request, response) -> passed.countDown());
+
+        assertEquals(0, passed.getCount());
+        assertEquals(200, health.getStatus());
+
+        release.countDown();
+        busy.join();
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -8,20 +8,32 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ReturnItemDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,6 +43,8 @@ class ItemControllerTest {
     ObjectMapper mapper;
     @MockBean
     ItemService itemService;
+    @MockBean
+    ItemImporter itemImporter;
     @Autowired
     private MockMvc mvc;
     private final long userId = 1L;
@@ -71,6 +85,44 @@ class ItemControllerTest {
         verify(itemService, times(1)).create(anyLong(), any());
     }
 
+    @SneakyThrows
+    @Test
+    void importItems_whenNormallyInvoked_thenWriteResultPerRow() {
+        String rows = mapper.writeValueAsString(itemDto) + "\n{\"name\":\"\"}\n";
+        doAnswer(invocation -> {
+            Consumer<List<ItemImportResultDto>> results = invocation.getArgument(2);
+            assertEquals(rows, new String(invocation.<InputStream>getArgument(1).readAllBytes(), StandardCharsets.UTF_8));
+            results.accept(List.of(
+                    ItemImportResultDto.builder().row(1).code(200).itemId(itemId).build(),
+                    ItemImportResultDto.builder().row(2).code(400).error("Name must not be blank.").build()));
+            return null;
+        }).when(itemImporter).importItems(eq(userId), any(), any());
+
+        mvc.perform(post("/items/bulk")
+                        .content(rows)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"row\":1,\"code\":200,\"itemId\":1}\n"
+                        + "{\"row\":2,\"code\":400,\"error\":\"Name must not be blank.\"}\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenUserNotFound_thenReturnNotFound() {
+        doThrow(new NotFoundException("User with id = 1 not found"))
+                .when(itemImporter).importItems(eq(userId), any(), any());
+
+        mvc.perform(post("/items/bulk")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("User with id = 1 not found")));
+    }
+
     @SneakyThrows
     @Test
     void create_whenWithoutXSharerUserId_thenReturnBadRequest() {
@@ -237,8 +289,11 @@ class ItemControllerTest {
     void findAllByOwner_whenNormallyInvokedWithoutAllParams_thenReturnOk() {
         List<ReturnItemDto> itemsByOwner = List.of(returnItemDto);
 
-        when(itemService.findByOwner(anyLong(), any(), any()))
-                .thenReturn(itemsByOwner);
+        doAnswer(invocation -> {
+            Consumer<ReturnItemDto> items = invocation.getArgument(1);
+            itemsByOwner.forEach(items);
+            return null;
+        }).when(itemService).streamByOwner(anyLong(), any());
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId))
@@ -246,7 +301,7 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(itemsByOwner.size()));
 
-        verify(itemService, times(1)).findByOwner(anyLong(),any(), any());
+        verify(itemService, times(1)).streamByOwner(anyLong(), any());
     }
 
     @SneakyThrows
@@ -255,8 +310,11 @@ class ItemControllerTest {
         Integer size = 10;
         List<ReturnItemDto> itemsByOwner = List.of(returnItemDto);
 
-        when(itemService.findByOwner(anyLong(), any(), any()))
-                .thenReturn(itemsByOwner);
+        doAnswer(invocation -> {
+            Consumer<ReturnItemDto> items = invocation.getArgument(1);
+            itemsByOwner.forEach(items);
+            return null;
+        }).when(itemService).streamByOwner(anyLong(), any());
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId)
@@ -265,7 +323,7 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(itemsByOwner.size()));
 
-        verify(itemService, times(1)).findByOwner(anyLong(),any(), any());
+        verify(itemService, times(1)).streamByOwner(anyLong(), any());
     }
 
     @SneakyThrows
@@ -274,8 +332,11 @@ class ItemControllerTest {
         Integer from = 0;
         List<ReturnItemDto> itemsByOwner = List.of(returnItemDto);
 
-        when(itemService.findByOwner(anyLong(), any(), any()))
-                .thenReturn(itemsByOwner);
+        doAnswer(invocation -> {
+            Consumer<ReturnItemDto> items = invocation.getArgument(1);
+            itemsByOwner.forEach(items);
+            return null;
+        }).when(itemService).streamByOwner(anyLong(), any());
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId)
@@ -284,7 +345,7 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(itemsByOwner.size()));
 
-        verify(itemService, times(1)).findByOwner(anyLong(),any(), any());
+        verify(itemService, times(1)).streamByOwner(anyLong(), any());
     }
 
     @SneakyThrows
@@ -451,4 +512,32 @@ class ItemControllerTest {
 
         verify(itemService, never()).createComment(anyLong(), anyLong(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findAvailability_whenNormallyInvoked_thenReturnOk() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(List.of(new AvailabilityIntervalDto(from, from.plusDays(1), BookingStatus.APPROVED)))
+                .free(List.of(new AvailabilityIntervalDto(from.plusDays(1), to, null)))
+                .build();
+        when(itemService.findAvailability(userId, itemId, from, to))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$.free[0].status").doesNotExist());
+
+        verify(itemService, times(1)).findAvailability(eq(userId), eq(itemId), eq(from), eq(to));
+    }
+}
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.PersistenceUnitUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -21,6 +23,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class CommentRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
     @Autowired
     private CommentRepository commentRepository;
     @Autowired
@@ -90,4 +94,25 @@ class CommentRepositoryTest {
 
         assertTrue(commentRepository.findByItem(itemForTest).isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByItemIds_whenNormallyInvoked_thenReturnCollectionComments() {
+        Collection<Comment> comments = List.of(comment, comment1);
+
+        assertEquals(comments, commentRepository.findAllByItemIds(List.of(item.getId())));
+    }
+
+    @Test
+    void findAllByItemIds_whenInvokedWithUnknownItem_thenReturnEmptyList() {
+        assertTrue(commentRepository.findAllByItemIds(List.of(100L)).isEmpty());
+    }
+
+    @Test
+    void findByItem_whenNormallyInvoked_thenLoadAuthors() {
+        entityManager.flush();
+        entityManager.clear();
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+
+        commentRepository.findByItem(item).forEach(actual -> assertTrue(util.isLoaded(actual, "author")));
+    }
+}
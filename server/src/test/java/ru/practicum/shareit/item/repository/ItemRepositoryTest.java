@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.PersistenceUnitUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
@@ -15,12 +17,15 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
     @Autowired
     private ItemRepository itemRepository;
     @Autowired
@@ -58,22 +63,22 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByOwner_whenNormallyInvoked_thenReturnItemCollection() {
+    void findAllByOwnerId_whenNormallyInvoked_thenReturnItemCollection() {
         List<Item> expectedCol = List.of(item);
 
-        assertEquals(expectedCol, itemRepository.findAllByOwner(owner));
+        assertEquals(expectedCol, itemRepository.findAllByOwnerId(owner.getId()));
     }
 
     @Test
-    void findAllByOwner_whenNotFoundItemByOwner_thenReturnEmptyCollection() {
-        assertTrue(itemRepository.findAllByOwner(requestor).isEmpty());
+    void findAllByOwnerId_whenNotFoundItemByOwner_thenReturnEmptyCollection() {
+        assertTrue(itemRepository.findAllByOwnerId(requestor.getId()).isEmpty());
     }
 
     @Test
-    void findAllByOwner_whenNormallyInvokedWithPagination_thenReturnPage() {
+    void findAllByOwnerId_whenNormallyInvokedWithPagination_thenReturnPage() {
         List<Item> expectedCol = List.of(item);
 
-        assertEquals(expectedCol, itemRepository.findAllByOwner(owner, pagination).getContent());
+        assertEquals(expectedCol, itemRepository.findAllByOwnerId(owner.getId(), pagination).getContent());
     }
 
     @Test
@@ -170,4 +175,89 @@ class ItemRepositoryTest {
 
         assertEquals(expectedList, itemRepository.findAllByRequest(requestForTest));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByRequestIn_whenNormallyInvoked_thenReturnItemsOfAllRequests() {
+        ItemRequest otherRequest = requestRepository.save(ItemRequest.builder()
+                .description("OtherDescription")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("OtherTitle")
+                .description("OtherItemDescription")
+                .available(true)
+                .owner(owner)
+                .request(otherRequest)
+                .build());
+
+        assertEquals(List.of(item, otherItem), itemRepository.findAllByRequestIn(List.of(request, otherRequest)));
+        assertEquals(List.of(otherItem), itemRepository.findAllByRequestIn(List.of(otherRequest)));
+    }
+
+    @Test
+    void existsByOwnerId_whenOwnerHasItems_thenReturnTrue() {
+        assertTrue(itemRepository.existsByOwnerId(owner.getId()));
+    }
+
+    @Test
+    void existsByOwnerId_whenUserHasNoItems_thenReturnFalse() {
+        assertFalse(itemRepository.existsByOwnerId(requestor.getId()));
+    }
+
+    @Test
+    void findAllByAvailableTrue_whenNormallyInvoked_thenReturnOnlyAvailableItems() {
+        Item unavailableItem = Item.builder()
+                .name("Unavailable")
+                .description("Unavailable")
+                .available(false)
+                .owner(owner)
+                .build();
+        itemRepository.save(unavailableItem);
+
+        assertEquals(List.of(item), itemRepository.findAllByAvailableTrue());
+    }
+
+    @Test
+    void findWithOwnerById_whenNormallyInvoked_thenLoadOwnerOnly() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Item actual = itemRepository.findWithOwnerById(item.getId()).get();
+
+        assertTrue(persistenceUnitUtil().isLoaded(actual, "owner"));
+        assertFalse(persistenceUnitUtil().isLoaded(actual, "request"));
+    }
+
+    @Test
+    void findAllByOwnerId_whenNormallyInvoked_thenLoadOwner() {
+        entityManager.flush();
+        entityManager.clear();
+
+        itemRepository.findAllByOwnerId(owner.getId())
+                .forEach(actual -> assertTrue(persistenceUnitUtil().isLoaded(actual, "owner")));
+    }
+
+    @Test
+    void streamAllByOwnerIdOrderById_whenNormallyInvoked_thenStreamItemsInIdOrderWithOwner() {
+        Item second = itemRepository.save(Item.builder()
+                .name("Second")
+                .description("SecondDescription")
+                .available(false)
+                .owner(owner)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderById(owner.getId())) {
+            List<Item> actual = items.toList();
+
+            assertEquals(List.of(item.getId(), second.getId()), actual.stream().map(Item::getId).toList());
+            actual.forEach(streamed -> assertTrue(persistenceUnitUtil().isLoaded(streamed, "owner")));
+        }
+    }
+
+    private PersistenceUnitUtil persistenceUnitUtil() {
+        return entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+    }
+}
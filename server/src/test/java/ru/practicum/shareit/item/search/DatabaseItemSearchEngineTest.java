@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private DatabaseItemSearchEngine searchEngine;
+    private final Item item = Item.builder()
+            .id(1L)
+            .name("Name")
+            .description("Description")
+            .available(true)
+            .build();
+
+    @Test
+    void search_whenPaged_thenUsePagedQuery() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        when(itemRepository.findAllByNameOrDescription("text", pageRequest)).thenReturn(new PageImpl<>(List.of(item)));
+
+        assertEquals(List.of(item), searchEngine.search("text", pageRequest));
+
+        verify(itemRepository, never()).findAllByNameOrDescription(anyString());
+    }
+
+    @Test
+    void search_whenUnpaged_thenUseUnpagedQuery() {
+        when(itemRepository.findAllByNameOrDescription("text")).thenReturn(List.of(item));
+
+        assertEquals(List.of(item), searchEngine.search("text", Pageable.unpaged()));
+
+        verify(itemRepository, never()).findAllByNameOrDescription(anyString(), any());
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+    private final Item drill = Item.builder()
+            .id(1L)
+            .name("Дрель")
+            .description("Простая дрель")
+            .available(true)
+            .build();
+    private final Item screwdriver = Item.builder()
+            .id(2L)
+            .name("Отвертка")
+            .description("Аккумуляторная отвертка")
+            .available(true)
+            .build();
+    private final Item hiddenDrill = Item.builder()
+            .id(3L)
+            .name("Дрель ударная")
+            .description("Недоступна")
+            .available(false)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(drill, screwdriver));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_whenTextMatchesPartOfDescriptionInAnotherCase_thenReturnItem() {
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(screwdriver));
+
+        assertEquals(List.of(screwdriver), searchEngine.search("аккУМУлятор", Pageable.unpaged()));
+    }
+
+    @Test
+    void search_whenTextShorterThanGram_thenScanIndexedDocuments() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(screwdriver, drill));
+
+        assertEquals(List.of(drill, screwdriver), searchEngine.search("р", Pageable.unpaged()));
+    }
+
+    @Test
+    void search_whenNothingMatches_thenReturnEmptyListWithoutDatabaseCall() {
+        assertTrue(searchEngine.search("пила", Pageable.unpaged()).isEmpty());
+
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void search_whenPaged_thenLoadOnlyMatchesUpToRequestedPage() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(drill, screwdriver));
+
+        assertEquals(List.of(screwdriver), searchEngine.search("р", PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void search_whenPagedAndMatchIsStale_thenFillPageFromFurtherMatches() {
+        Item unavailableDrill = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(false)
+                .build();
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(unavailableDrill));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(screwdriver));
+
+        assertEquals(List.of(screwdriver), searchEngine.search("р", PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void index_whenInsideTransaction_thenIndexOnlyAfterCommit() {
+        Item saw = Item.builder()
+                .id(4L)
+                .name("Пила")
+                .description("Ножовка")
+                .available(true)
+                .build();
+        when(itemRepository.findAllById(List.of(4L))).thenReturn(List.of(saw));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(saw);
+            assertTrue(searchEngine.search("пила", Pageable.unpaged()).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(saw), searchEngine.search("пила", Pageable.unpaged()));
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenRemoveFromIndex() {
+        Item unavailableDrill = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(false)
+                .build();
+
+        searchEngine.index(unavailableDrill);
+        searchEngine.index(hiddenDrill);
+
+        assertTrue(searchEngine.search("дрель", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void index_whenItemRenamed_thenSearchByNewName() {
+        Item renamedDrill = Item.builder()
+                .id(1L)
+                .name("Перфоратор")
+                .description("Мощный")
+                .available(true)
+                .build();
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(renamedDrill));
+
+        searchEngine.index(renamedDrill);
+
+        assertEquals(List.of(renamedDrill), searchEngine.search("перфо", Pageable.unpaged()));
+        assertTrue(searchEngine.search("дрель", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void search_whenDatabaseRowNoLongerMatches_thenSkipStaleItem() {
+        Item changedScrewdriver = Item.builder()
+                .id(2L)
+                .name("Отвертка")
+                .description("Обычная отвертка")
+                .available(true)
+                .build();
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(changedScrewdriver));
+
+        assertTrue(searchEngine.search("аккумулятор", Pageable.unpaged()).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCalendarTest {
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = from.plusDays(10);
+
+    @Test
+    void of_whenNoBookings_thenWholePeriodIsFree() {
+        ItemAvailabilityDto actual = AvailabilityCalendar.of(1L, from, to, List.of());
+
+        assertTrue(actual.getBusy().isEmpty());
+        assertEquals(List.of(free(0, 10)), actual.getFree());
+    }
+
+    @Test
+    void of_whenBookingsOverlapWindowEdges_thenClipToWindow() {
+        ItemAvailabilityDto actual = AvailabilityCalendar.of(1L, from, to, List.of(
+                interval(1, -2, 2, BookingStatus.APPROVED),
+                interval(2, 8, 12, BookingStatus.WAITING)));
+
+        assertEquals(List.of(busy(0, 2, BookingStatus.APPROVED), busy(8, 10, BookingStatus.WAITING)), actual.getBusy());
+        assertEquals(List.of(free(2, 8)), actual.getFree());
+    }
+
+    @Test
+    void of_whenWaitingOverlapsApproved_thenApprovedTakesPrecedence() {
+        ItemAvailabilityDto actual = AvailabilityCalendar.of(1L, from, to, List.of(
+                interval(1, 1, 5, BookingStatus.WAITING),
+                interval(2, 2, 3, BookingStatus.APPROVED),
+                interval(3, 4, 6, BookingStatus.WAITING)));
+
+        assertEquals(List.of(
+                busy(1, 2, BookingStatus.WAITING),
+                busy(2, 3, BookingStatus.APPROVED),
+                busy(3, 6, BookingStatus.WAITING)), actual.getBusy());
+        assertEquals(List.of(free(0, 1), free(6, 10)), actual.getFree());
+    }
+
+    private BookingInterval interval(long id, int startDay, int endDay, BookingStatus status) {
+        return new BookingInterval(id, from.plusDays(startDay), from.plusDays(endDay), status);
+    }
+
+    private AvailabilityIntervalDto busy(int startDay, int endDay, BookingStatus status) {
+        return new AvailabilityIntervalDto(from.plusDays(startDay), from.plusDays(endDay), status);
+    }
+
+    private AvailabilityIntervalDto free(int startDay, int endDay) {
+        return new AvailabilityIntervalDto(from.plusDays(startDay), from.plusDays(endDay), null);
+    }
+}
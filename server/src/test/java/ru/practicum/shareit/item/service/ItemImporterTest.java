@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final long userId = 1L;
+    private final User owner = User.builder().id(userId).name("OwnerName").email("owner@email.com").build();
+    private final AtomicLong itemIds = new AtomicLong();
+    private final List<List<ItemImportResultDto>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userExistenceCache.exists(userId)).thenReturn(true);
+        lenient().when(userRepository.getReferenceById(userId)).thenReturn(owner);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(itemRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.forEach(item -> item.setId(itemIds.incrementAndGet()));
+            return items;
+        });
+    }
+
+    @Test
+    void importItems_whenNdjson_thenSaveValidRowsInBatches() throws Exception {
+        String rows = row("First") + "\n" + row("Second") + "\n{\"name\":\" \",\"description\":\"D\",\"available\":true}\n"
+                + row("Fourth") + "\n" + row("Fifth") + "\n";
+
+        importer(2).importItems(userId, stream(rows), batches::add);
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).collect(Collectors.toList()));
+        List<ItemImportResultDto> results = results();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), results.stream().map(ItemImportResultDto::getRow).collect(Collectors.toList()));
+        assertEquals(List.of(200, 200, 400, 200, 200), results.stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        assertEquals("Name must not be blank.", results.get(2).getError());
+        assertNull(results.get(2).getItemId());
+        assertEquals(4, results.stream().map(ItemImportResultDto::getItemId).filter(id -> id != null).distinct().count());
+        verify(itemRepository, times(3)).saveAll(any());
+        verify(itemSearchEngine, times(4)).index(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void importItems_whenJsonArray_thenImportEveryElement() throws Exception {
+        importer(10).importItems(userId, stream("[" + row("First") + ", " + row("Second") + "]"), batches::add);
+
+        assertEquals(List.of(200, 200), results().stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        verify(itemRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void importItems_whenRowDoesNotDescribeItem_thenSkipItAndContinue() throws Exception {
+        String rows = "{\"name\":\"N\",\"description\":\"D\",\"available\":{\"nested\":1}}\n" + row("Second") + "\n";
+
+        importer(10).importItems(userId, stream(rows), batches::add);
+
+        List<ItemImportResultDto> results = results();
+        assertEquals(List.of(400, 200), results.stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        assertTrue(results.get(0).getError().startsWith("The row does not describe an item"));
+    }
+
+    @Test
+    void importItems_whenJsonIsMalformed_thenStopAfterRowsRead() throws Exception {
+        String rows = row("First") + "\n{\"name\": oops\n" + row("Third") + "\n";
+
+        importer(10).importItems(userId, stream(rows), batches::add);
+
+        List<ItemImportResultDto> results = results();
+        assertEquals(List.of(200, 400), results.stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        assertTrue(results.get(1).getError().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importItems_whenItemRequestUnknown_thenReportRowNotFound() throws Exception {
+        ItemRequest request = ItemRequest.builder().id(7L).description("Request").requestor(owner).build();
+        when(itemRequestRepository.findAllById(Set.of(7L, 8L))).thenReturn(List.of(request));
+        String rows = "{\"name\":\"N\",\"description\":\"D\",\"available\":true,\"requestId\":7}\n"
+                + "{\"name\":\"N\",\"description\":\"D\",\"available\":true,\"requestId\":8}\n";
+
+        importer(10).importItems(userId, stream(rows), batches::add);
+
+        List<ItemImportResultDto> results = results();
+        assertEquals(List.of(200, 404), results.stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        assertEquals("ItemRequest with id = 8 not found", results.get(1).getError());
+    }
+
+    @Test
+    void importItems_whenBatchFailsToSave_thenReportItsRowsAndContinue() throws Exception {
+        doThrow(new DataIntegrityViolationException("Broken"))
+                .doAnswer(invocation -> invocation.getArgument(0))
+                .when(itemRepository).saveAll(any());
+        String rows = row("First") + "\n" + row("Second") + "\n" + row("Third") + "\n";
+
+        importer(2).importItems(userId, stream(rows), batches::add);
+
+        assertEquals(List.of(500, 500, 200), results().stream().map(ItemImportResultDto::getCode).collect(Collectors.toList()));
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void importItems_whenUserUnknown_thenThrowNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> importer(10).importItems(userId, stream(row("First")), batches::add));
+
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void importItems_whenInputIsLarge_thenReadItRowByRow() throws Exception {
+        int total = 20_000;
+        AtomicInteger produced = new AtomicInteger();
+        List<Integer> producedAtBatch = new ArrayList<>();
+        InputStream rows = new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return produced.get() < total;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return stream(row("Item" + produced.incrementAndGet()) + "\n");
+            }
+        });
+
+        importer(100).importItems(userId, rows, batch -> producedAtBatch.add(produced.get()));
+
+        assertEquals(total / 100, producedAtBatch.size());
+        assertTrue(producedAtBatch.get(0) < total / 10, "The first batch must be saved before the input is read to the end");
+    }
+
+    private ItemImporter importer(int batchSize) {
+        return new ItemImporter(itemRepository, itemRequestRepository, userRepository, userExistenceCache, itemSearchEngine,
+                new ItemMapper(), Jackson2ObjectMapperBuilder.json().build(), transactionManager, batchSize);
+    }
+
+    private List<ItemImportResultDto> results() {
+        return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private static String row(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Description\",\"available\":true}";
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
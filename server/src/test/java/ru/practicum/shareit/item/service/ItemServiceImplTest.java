@@ -1,20 +1,27 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.exception.exception.ForbiddenException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ReturnItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -23,15 +30,20 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,17 +55,24 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository requestRepository;
     @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
     private CommentMapper commentMapper;
     @Mock
     private ItemMapper itemMapper;
-    @Mock
-    private BookingMapper bookingMapper;
+    private final EntityManager entityManager = mock(EntityManager.class);
+    @Spy
+    private ChunkedStreamReader chunkedStreamReader = new ChunkedStreamReader(entityManager, 2);
     @InjectMocks
     private ItemServiceImpl itemService;
     private final long userId = 1L;
@@ -140,7 +159,8 @@ class ItemServiceImplTest {
 
     @Test
     void create_whenNormallyInvoked_thenReturnItemDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
         when(itemMapper.fromItemDto(user, itemDto, request)).thenReturn(item);
         when(itemRepository.save(item)).thenReturn(item);
@@ -149,29 +169,31 @@ class ItemServiceImplTest {
 
         assertEquals(itemDto, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
         verify(requestRepository, times(1)).findById(anyLong());
         verify(itemMapper, times(1)).fromItemDto(any(), any(), any());
         verify(itemRepository, times(1)).save(any());
+        verify(itemSearchEngine, times(1)).index(item);
     }
 
     @Test
     void create_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.create(userId, itemDto));
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, never()).findById(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
     @Test
     void create_whenInvokedWithUnknownItemRequest_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.create(userId, itemDto));
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, times(1)).findById(anyLong());
         verify(itemRepository, never()).save(item);
     }
@@ -191,7 +213,8 @@ class ItemServiceImplTest {
                 .available(true)
                 .owner(user)
                 .build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemMapper.fromItemDto(user, itemDtoForTest, null)).thenReturn(itemForTest);
         when(itemRepository.save(itemForTest)).thenReturn(itemForTest);
 
@@ -199,7 +222,7 @@ class ItemServiceImplTest {
 
         assertEquals(itemDtoForTest, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
         verify(requestRepository, never()).findById(anyLong());
         verify(itemMapper, times(1)).fromItemDto(any(), any(), any());
         verify(itemRepository, times(1)).save(any());
@@ -238,6 +261,7 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(anyLong());
         verify(itemRepository, times(1)).save(any());
         verify(itemMapper, times(1)).toItemDto(any());
+        verify(itemSearchEngine, times(1)).index(itemForTest);
     }
 
     @Test
@@ -361,42 +385,22 @@ class ItemServiceImplTest {
 
     @Test
     void findById_whenInvokedWithUserIsOwner_thenReturnItemDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findWithOwnerById(anyLong())).thenReturn(Optional.of(item));
         when(commentRepository.findByItem(item)).thenReturn(comments);
         when(commentMapper.toCommentDto(comment)).thenReturn(commentDto);
-        when(bookingRepository.findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any()))
-                .thenReturn(Optional.of(Booking.builder()
-                        .id(1L)
-                        .start(lastBooking.getStart())
-                        .end(lastBooking.getEnd())
-                        .item(item)
-                        .booker(user)
-                        .status(BookingStatus.APPROVED)
-                        .build()));
-        when(bookingRepository.findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any()))
-                .thenReturn(Optional.of(Booking.builder()
-                        .id(2L)
-                        .start(nextBooking.getStart())
-                        .end(nextBooking.getEnd())
-                        .item(item)
-                        .booker(user)
-                        .status(BookingStatus.APPROVED)
-                        .build()));
-        when(bookingMapper.toBookingDtoForItem(any())).thenReturn(lastBooking, nextBooking);
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any(), any())).thenReturn(List.of(lastBooking, nextBooking));
         when(itemMapper.toReturnItemDto(item, lastBooking, nextBooking, commentsDto)).thenReturn(returnItemDtoWithLastAndNext);
 
         ReturnItemDto actual = itemService.findById(userId, itemId);
 
         assertEquals(returnItemDtoWithLastAndNext, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemRepository, times(1)).findWithOwnerById(anyLong());
         verify(commentRepository, times(1)).findByItem(any());
         verify(commentMapper, times(1)).toCommentDto(any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any());
-        verify(bookingMapper, times(2)).toBookingDtoForItem(any());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(eq(List.of(itemId)), any(), any());
         verify(itemMapper, times(1)).toReturnItemDto(any(), any(), any(), anyList());
     }
 
@@ -409,29 +413,27 @@ class ItemServiceImplTest {
                 .email("NotOwner@Email.com")
                 .build();
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(notOwner));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findWithOwnerById(anyLong())).thenReturn(Optional.of(item));
         when(commentRepository.findByItem(item)).thenReturn(comments);
         when(commentMapper.toCommentDto(comment)).thenReturn(commentDto);
         when(itemMapper.toReturnItemDto(any(), any(), any(), anyList())).thenReturn(returnItemDto);
 
-        ReturnItemDto actual = itemService.findById(userId, itemId);
+        ReturnItemDto actual = itemService.findById(notOwner.getId(), itemId);
 
         assertEquals(returnItemDto, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findById(anyLong());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemRepository, times(1)).findWithOwnerById(anyLong());
         verify(commentRepository, times(1)).findByItem(any());
         verify(commentMapper, times(1)).toCommentDto(any());
-        verify(bookingRepository, never()).findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any());
-        verify(bookingRepository, never()).findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any());
-        verify(bookingMapper, never()).toBookingDtoForItem(any());
+        verify(bookingRepository, never()).findLastAndNextByItemIds(anyCollection(), any(), any());
         verify(itemMapper, times(1)).toReturnItemDto(any(), any(), any(), anyList());
     }
 
     @Test
     void findById_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.findById(userId, itemId));
 
@@ -440,8 +442,8 @@ class ItemServiceImplTest {
 
     @Test
     void findById_whenInvokedWithUnknownItem_thenReturnNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findWithOwnerById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.findById(userId, itemId));
 
@@ -452,28 +454,10 @@ class ItemServiceImplTest {
     void findByOwner_whenNormallyInvokedWithPaginationAndWithLastAndNextBooking_thenReturnListReturnItemDto() {
         List<ReturnItemDto> expected = Collections.singletonList(returnItemDtoWithLastAndNext);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(any(), any())).thenReturn(new PageImpl<>(items));
-        when(bookingRepository.findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any()))
-                .thenReturn(Optional.of(Booking.builder()
-                        .id(1L)
-                        .start(lastBooking.getStart())
-                        .end(lastBooking.getEnd())
-                        .item(item)
-                        .booker(user)
-                        .status(BookingStatus.APPROVED)
-                        .build()));
-        when(bookingRepository.findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any()))
-                .thenReturn(Optional.of(Booking.builder()
-                        .id(2L)
-                        .start(nextBooking.getStart())
-                        .end(nextBooking.getEnd())
-                        .item(item)
-                        .booker(user)
-                        .status(BookingStatus.APPROVED)
-                        .build()));
-        when(bookingMapper.toBookingDtoForItem(any())).thenReturn(lastBooking, nextBooking);
-        when(commentRepository.findByItem(item)).thenReturn(comments);
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(new PageImpl<>(items));
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any(), any())).thenReturn(List.of(lastBooking, nextBooking));
+        when(commentRepository.findAllByItemIds(anyCollection())).thenReturn(comments);
         when(commentMapper.toCommentDto(comment)).thenReturn(commentDto);
         when(itemMapper.toReturnItemDto(item, lastBooking, nextBooking, commentsDto)).thenReturn(returnItemDtoWithLastAndNext);
 
@@ -481,13 +465,12 @@ class ItemServiceImplTest {
 
         assertEquals(expected, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findAllByOwner(any(),any());
-        verify(itemRepository, never()).findAllByOwner(any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any());
-        verify(bookingMapper, times(2)).toBookingDtoForItem(any());
-        verify(commentRepository, times(1)).findByItem(any());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemRepository, times(1)).findAllByOwnerId(anyLong(), any());
+        verify(itemRepository, never()).findAllByOwnerId(anyLong());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(anyCollection(), any(), any());
+        verify(commentRepository, times(1)).findAllByItemIds(anyCollection());
+        verify(commentRepository, never()).findByItem(any());
         verify(commentMapper, times(1)).toCommentDto(any());
         verify(itemMapper, times(1)).toReturnItemDto(any(), any(), any(), anyList());
     }
@@ -496,13 +479,10 @@ class ItemServiceImplTest {
     void findByOwner_whenNormallyInvokedWithoutPaginationAndWithoutLastAndNextBooking_thenReturnListReturnItemDto() {
         List<ReturnItemDto> expected = Collections.singletonList(returnItemDto);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(any())).thenReturn(items);
-        when(bookingRepository.findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(commentRepository.findByItem(item)).thenReturn(comments);
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(items);
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any(), any())).thenReturn(Collections.emptyList());
+        when(commentRepository.findAllByItemIds(anyCollection())).thenReturn(comments);
         when(commentMapper.toCommentDto(comment)).thenReturn(commentDto);
         when(itemMapper.toReturnItemDto(item, null, null, commentsDto)).thenReturn(returnItemDto);
 
@@ -510,24 +490,68 @@ class ItemServiceImplTest {
 
         assertEquals(expected, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findAllByOwner(any());
-        verify(itemRepository, never()).findAllByOwner(any(),any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartAfterAndStatusOrderByStartAsc(any(), any(), any());
-        verify(bookingRepository, times(1)).findTop1ByItemAndStartBeforeAndStatusOrderByEndDesc(any(), any(), any());
-        verify(bookingMapper, never()).toBookingDtoForItem(any());
-        verify(commentRepository, times(1)).findByItem(any());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemRepository, times(1)).findAllByOwnerId(anyLong());
+        verify(itemRepository, never()).findAllByOwnerId(anyLong(), any());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(anyCollection(), any(), any());
+        verify(commentRepository, times(1)).findAllByItemIds(anyCollection());
         verify(commentMapper, times(1)).toCommentDto(any());
         verify(itemMapper, times(1)).toReturnItemDto(any(), any(), any(), anyList());
     }
 
+    @Test
+    void streamByOwner_whenItemsSpanSeveralChunks_thenLoadBookingsAndCommentsOncePerChunk() {
+        List<Item> ownerItems = List.of(item,
+                Item.builder().id(2L).name("Second").description("D").available(true).owner(user).build(),
+                Item.builder().id(3L).name("Third").description("D").available(true).owner(user).build());
+
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.streamAllByOwnerIdOrderById(userId)).thenReturn(ownerItems.stream());
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any(), any())).thenReturn(Collections.emptyList());
+        when(commentRepository.findAllByItemIds(anyCollection())).thenReturn(Collections.emptyList());
+        when(itemMapper.toReturnItemDto(any(), any(), any(), anyList())).thenAnswer(invocation -> ReturnItemDto.builder()
+                .id(invocation.<Item>getArgument(0).getId())
+                .build());
+        List<ReturnItemDto> actual = new ArrayList<>();
+
+        itemService.streamByOwner(userId, actual::add);
+
+        assertEquals(List.of(1L, 2L, 3L), actual.stream().map(ReturnItemDto::getId).collect(Collectors.toList()));
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(eq(List.of(1L, 2L)), any(), any());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(eq(List.of(3L)), any(), any());
+        verify(commentRepository, times(2)).findAllByItemIds(anyCollection());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void streamByOwner_whenUserNotFound_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.streamByOwner(userId, itemDto -> { }));
+
+        verify(itemRepository, never()).streamAllByOwnerIdOrderById(anyLong());
+    }
+
+    @Test
+    void findByOwner_whenOwnerHasNoItems_thenReturnEmptyListWithoutLoadingBookingsAndComments() {
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.emptyList());
+
+        List<ReturnItemDto> actual = itemService.findByOwner(userId, null, null);
+
+        assertTrue(actual.isEmpty());
+
+        verify(bookingRepository, never()).findLastAndNextByItemIds(anyCollection(), any(), any());
+        verify(commentRepository, never()).findAllByItemIds(anyCollection());
+    }
+
     @Test
     void findByOwner_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.findById(userId, itemId));
 
-        verify(itemRepository, never()).findAllByOwner(any());
+        verify(itemRepository, never()).findAllByOwnerId(anyLong());
     }
 
     @Test
@@ -535,17 +559,16 @@ class ItemServiceImplTest {
         List<Item> items = Collections.singletonList(item);
         List<ItemDto> expected = Collections.singletonList(itemDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByNameOrDescription(anyString(), any())).thenReturn(new PageImpl<>(items));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemSearchEngine.search("text", PageRequest.of(2, 10))).thenReturn(items);
         when(itemMapper.toItemDto(item)).thenReturn(itemDto);
 
-        List<ItemDto> actual = itemService.search(userId, "text", 0, 10);
+        List<ItemDto> actual = itemService.search(userId, "text", 20, 10);
 
         assertEquals(expected, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, times(1)).findAllByNameOrDescription(anyString(), any());
-        verify(itemRepository, never()).findAllByNameOrDescription(anyString());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemSearchEngine, times(1)).search(anyString(), any());
         verify(itemMapper, times(1)).toItemDto(any());
     }
 
@@ -554,17 +577,16 @@ class ItemServiceImplTest {
         List<Item> items = Collections.singletonList(item);
         List<ItemDto> expected = Collections.singletonList(itemDto);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByNameOrDescription(anyString())).thenReturn(items);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemSearchEngine.search("text", Pageable.unpaged())).thenReturn(items);
         when(itemMapper.toItemDto(item)).thenReturn(itemDto);
 
         List<ItemDto> actual = itemService.search(userId, "text", null, null);
 
         assertEquals(expected, actual);
 
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(itemRepository, never()).findAllByNameOrDescription(anyString(), any());
-        verify(itemRepository, times(1)).findAllByNameOrDescription(anyString());
+        verify(userExistenceCache, times(1)).exists(anyLong());
+        verify(itemSearchEngine, times(1)).search(anyString(), any());
         verify(itemMapper, times(1)).toItemDto(any());
     }
 
@@ -576,18 +598,17 @@ class ItemServiceImplTest {
 
         assertEquals(expected, actual);
 
-        verify(userRepository, never()).findById(anyLong());
-        verify(itemRepository, never()).findAllByNameOrDescription(anyString());
+        verify(userExistenceCache, never()).exists(anyLong());
+        verify(itemSearchEngine, never()).search(anyString(), any());
     }
 
     @Test
     void search_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(anyLong())).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> itemService.findById(userId, itemId));
+        assertThrows(NotFoundException.class, () -> itemService.search(userId, "text", null, null));
 
-        verify(itemRepository, never()).findAllByNameOrDescription(any());
-        verify(itemRepository, never()).findAllByNameOrDescription(any(), any());
+        verify(itemSearchEngine, never()).search(anyString(), any());
     }
 
     @Test
@@ -646,4 +667,41 @@ class ItemServiceImplTest {
 
         verify(commentRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAvailability_whenNormallyInvoked_thenReturnMergedIntervals() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingIntervalIndex.findOverlapping(itemId, from, to)).thenReturn(List.of(
+                new BookingInterval(1L, from.plusDays(1), from.plusDays(3), BookingStatus.APPROVED),
+                new BookingInterval(2L, from.plusDays(3), from.plusDays(4), BookingStatus.APPROVED)));
+
+        ItemAvailabilityDto actual = itemService.findAvailability(userId, itemId, from, to);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusDays(1), from.plusDays(4), BookingStatus.APPROVED)),
+                actual.getBusy());
+        assertEquals(List.of(new AvailabilityIntervalDto(from, from.plusDays(1), null),
+                new AvailabilityIntervalDto(from.plusDays(4), to, null)), actual.getFree());
+    }
+
+    @Test
+    void findAvailability_whenPeriodEndsBeforeStart_thenReturnBadRequestException() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(BadRequestException.class, () -> itemService.findAvailability(userId, itemId, from, from.minusDays(1)));
+
+        verify(bookingIntervalIndex, never()).findOverlapping(anyLong(), any(), any());
+    }
+
+    @Test
+    void findAvailability_whenInvokedWithUnknownItem_thenReturnNotFoundException() {
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.findAvailability(userId, itemId, null, null));
+
+        verify(bookingIntervalIndex, never()).findOverlapping(anyLong(), any(), any());
+    }
+}
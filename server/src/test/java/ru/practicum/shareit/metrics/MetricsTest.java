@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MetricsTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        booker = userRepository.save(User.builder().name("Booker").email("booker." + System.nanoTime() + "@email.com").build());
+    }
+
+    @Test
+    void findAllByBookerId_whenCalled_thenTimeServiceCallByStateAndRepositoryQuery() {
+        bookingService.findAllByBookerId(booker.getId(), BookingState.PAST, 0, 10);
+
+        assertTrue(meterRegistry.get(ServiceMetricsAspect.SERVICE_METER)
+                .tags("class", "BookingServiceImpl", "method", "findAllByBookerId", "exception", "none")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get(ServiceMetricsAspect.BOOKING_METER)
+                .tags("method", "findAllByBookerId", "state", "PAST", "exception", "none")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "BookingRepository")
+                .timers().stream().mapToLong(timer -> timer.count()).sum() >= 1);
+        assertTrue(meterRegistry.get(RepositoryRowsInterceptor.ROWS_METER)
+                .tags("repository", "BookingRepository")
+                .summaries().stream().mapToLong(summary -> summary.count()).sum() >= 1);
+        assertTrue(meterRegistry.get("hibernate.statements").tags("status", "prepared").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void findById_whenServiceThrows_thenTagCallWithException() {
+        assertThrows(NotFoundException.class, () -> bookingService.findById(booker.getId(), Long.MAX_VALUE));
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.SERVICE_METER)
+                .tags("class", "BookingServiceImpl", "method", "findById", "exception", "NotFoundException")
+                .timer().count());
+    }
+}
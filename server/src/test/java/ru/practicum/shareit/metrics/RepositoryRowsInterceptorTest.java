@@ -0,0 +1,108 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryRowsInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepository() {
+        });
+        proxyFactory.addInterface(SampleRepository.class);
+        proxyFactory.addAdvice(new RepositoryRowsInterceptor(() -> meterRegistry, SampleRepository.class));
+        repository = (SampleRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void invoke_whenListOrPageReturned_thenRecordTheirSize() {
+        repository.findAll();
+        repository.findPage();
+
+        assertEquals(3, rows("findAll").totalAmount());
+        assertEquals(2, rows("findPage").totalAmount());
+    }
+
+    @Test
+    void invoke_whenOptionalOrEntityReturned_thenRecordOneOrZero() {
+        repository.findFirst();
+        repository.findNone();
+        repository.findEntity();
+
+        assertEquals(1, rows("findFirst").totalAmount());
+        assertEquals(0, rows("findNone").totalAmount());
+        assertEquals(1, rows("findNone").count());
+        assertEquals(1, rows("findEntity").totalAmount());
+    }
+
+    @Test
+    void invoke_whenStreamReturned_thenRecordRowsReadOnceClosed() {
+        try (Stream<String> stream = repository.stream()) {
+            assertEquals(4, stream.toList().size());
+            assertNull(meterRegistry.find(RepositoryRowsInterceptor.ROWS_METER).summary());
+        }
+
+        assertEquals(4, rows("stream").totalAmount());
+    }
+
+    @Test
+    void invoke_whenCountReturned_thenRecordNothing() {
+        repository.count();
+        repository.exists();
+
+        assertNull(meterRegistry.find(RepositoryRowsInterceptor.ROWS_METER).summary());
+    }
+
+    private DistributionSummary rows(String method) {
+        return meterRegistry.get(RepositoryRowsInterceptor.ROWS_METER)
+                .tags("repository", "SampleRepository", "method", method)
+                .summary();
+    }
+
+    interface SampleRepository {
+        default List<String> findAll() {
+            return List.of("a", "b", "c");
+        }
+
+        default Page<String> findPage() {
+            return new PageImpl<>(List.of("a", "b"));
+        }
+
+        default Optional<String> findFirst() {
+            return Optional.of("a");
+        }
+
+        default Optional<String> findNone() {
+            return Optional.empty();
+        }
+
+        default String findEntity() {
+            return "a";
+        }
+
+        default Stream<String> stream() {
+            return Stream.of("a", "b", "c", "d");
+        }
+
+        default long count() {
+            return 3;
+        }
+
+        default boolean exists() {
+            return true;
+        }
+    }
+}
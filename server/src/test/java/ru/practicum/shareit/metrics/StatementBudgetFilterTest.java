@@ -0,0 +1,69 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementBudgetFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    @Test
+    void doFilter_whenWithinBudget_thenRecordStatementsByUri() throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, 3, 3, true);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), statements(3, "select * from items where id=?"));
+
+        assertEquals(3, meterRegistry.get(StatementBudgetFilter.STATEMENTS_METER)
+                .tags("method", "GET", "uri", "/items/{itemId}")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_whenOverBudgetAndNotFailing_thenOnlyRecord() throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, 3, 10, false);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), statements(5, "select 1"));
+
+        assertEquals(5, meterRegistry.get(StatementBudgetFilter.STATEMENTS_METER).summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_whenOverBudgetAndFailing_thenThrowStatementBudgetExceededException() {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, 3, 10, true);
+
+        StatementBudgetExceededException e = assertThrows(StatementBudgetExceededException.class, () ->
+                filter.doFilter(request(), new MockHttpServletResponse(), statements(4, "insert into items values (?)")));
+
+        assertTrue(e.getMessage().contains("GET /items/{itemId} ran 4 SQL statements"));
+    }
+
+    @Test
+    void doFilter_whenSelectRepeatedAndFailing_thenThrowStatementBudgetExceededException() {
+        StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, 10, 2, true);
+
+        StatementBudgetExceededException e = assertThrows(StatementBudgetExceededException.class, () ->
+                filter.doFilter(request(), new MockHttpServletResponse(), statements(3, "select *\n  from items")));
+
+        assertTrue(e.getMessage().contains("ran the same select 3 times, a likely N+1: select * from items"));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        return request;
+    }
+
+    private FilterChain statements(int count, String sql) {
+        return (request, response) -> {
+            for (int i = 0; i < count; i++) {
+                statementCounter.inspect(sql);
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the list endpoints over several rows with a failing statement budget: a query repeated per row fails them.
+ * Streams are read one row per chunk, so their per-chunk queries repeat more often than the budget allows a request.
+ */
+@SpringBootTest(properties = {
+        "shareit.statement-budget.fail-on-exceed=true",
+        "shareit.statement-budget.max-statements=10",
+        "shareit.statement-budget.max-repeats=2",
+        "shareit.stream.chunk-size=1"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class StatementBudgetTest {
+    private static final int ROWS = 5;
+    private static final int BULK_ROWS = 1000;
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner." + System.nanoTime() + "@email.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker." + System.nanoTime() + "@email.com").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Request " + i).requestor(booker).created(now.minusDays(i)).build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item " + i).description("Description " + i).available(true).owner(owner).request(request).build());
+            bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1)).item(item)
+                    .booker(booker).status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                    .booker(booker).status(BookingStatus.APPROVED).build());
+            commentRepository.save(Comment.builder().text("Comment " + i).item(item).author(booker).created(now).build());
+        }
+    }
+
+    @SneakyThrows
+    @ParameterizedTest
+    @ValueSource(strings = {"/items", "/items?from=0&size=10", "/bookings/owner?state=ALL", "/bookings/owner?state=PAST&from=0&size=10"})
+    void get_whenOwnerListsRows_thenStayWithinBudget(String uri) {
+        mvc.perform(get(uri).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @ParameterizedTest
+    @ValueSource(strings = {"/requests", "/bookings?state=ALL", "/bookings?state=FUTURE&from=0&size=10"})
+    void get_whenBookerListsRows_thenStayWithinBudget(String uri) {
+        mvc.perform(get(uri).header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    @ParameterizedTest
+    @ValueSource(strings = {"/requests/all?from=0&size=10"})
+    void get_whenOtherUserListsRows_thenStayWithinBudget(String uri) {
+        mvc.perform(get(uri).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SneakyThrows
+    void post_whenUsersCreatedInBulk_thenSequenceFetchesStayOutOfBudget() {
+        String users = IntStream.range(0, BULK_ROWS)
+                .mapToObj(i -> String.format("{\"name\":\"User %d\",\"email\":\"bulk.%d.%d@email.com\"}", i, i, System.nanoTime()))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mvc.perform(post("/users/bulk").contentType(MediaType.APPLICATION_JSON).content(users))
+                .andExpect(status().isOk());
+    }
+}
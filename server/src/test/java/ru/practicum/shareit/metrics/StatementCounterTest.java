@@ -0,0 +1,98 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCounterTest {
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    @Test
+    void inspect_whenScopeOpen_thenCountStatements() {
+        statementCounter.inspect("select 1");
+
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            statementCounter.inspect("select * from items where id=?");
+            statementCounter.inspect("insert into items values (?)");
+
+            assertEquals(2, scope.getStatements());
+        }
+    }
+
+    @Test
+    void close_whenScopesNested_thenCountInnerStatementsInOuterScope() {
+        try (StatementCounter.Scope outer = StatementCounter.open()) {
+            statementCounter.inspect("select * from users");
+            try (StatementCounter.Scope inner = StatementCounter.open()) {
+                statementCounter.inspect("select * from items");
+
+                assertEquals(1, inner.getStatements());
+            }
+            statementCounter.inspect("select * from items");
+
+            assertEquals(3, outer.getStatements());
+            assertEquals(Map.entry("select * from items", 2), outer.mostRepeatedSelect(1).orElseThrow());
+        }
+    }
+
+    @Test
+    void mostRepeatedSelect_whenSelectRepeatedPerRow_thenReturnIt() {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            statementCounter.inspect("select * from requests");
+            for (int i = 0; i < 4; i++) {
+                statementCounter.inspect("\n    select * from items where request_id=?");
+                statementCounter.inspect("insert into bookings values (?)");
+            }
+
+            assertEquals(4, scope.mostRepeatedSelect(3).orElseThrow().getValue());
+            assertTrue(scope.mostRepeatedSelect(4).isEmpty());
+        }
+    }
+
+    @Test
+    void inspect_whenSequenceFetched_thenDoNotCountIt() {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            for (int i = 0; i < 4; i++) {
+                statementCounter.inspect("select next value for users_seq");
+                statementCounter.inspect("select nextval('items_seq')");
+            }
+            statementCounter.inspect("insert into users values (?)");
+
+            assertEquals(1, scope.getStatements());
+            assertTrue(scope.mostRepeatedSelect(0).isEmpty());
+        }
+    }
+
+    @Test
+    void nextChunk_whenChunksRepeatQueries_thenCheckEachChunkSeparately() {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            statementCounter.inspect("select * from items where owner_id=?");
+            for (int i = 0; i < 4; i++) {
+                statementCounter.inspect("select * from bookings where item_id in (?)");
+                statementCounter.inspect("select * from comments where item_id in (?)");
+                StatementCounter.nextChunk();
+            }
+
+            assertEquals(9, scope.getStatements());
+            assertEquals(3, scope.getMaxChunkStatements());
+            assertEquals(1, scope.mostRepeatedSelect(0).orElseThrow().getValue());
+            assertTrue(scope.mostRepeatedSelect(1).isEmpty());
+        }
+    }
+
+    @Test
+    void mostRepeatedSelect_whenOneChunkRepeatsSelect_thenReturnIt() {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            for (int i = 0; i < 3; i++) {
+                statementCounter.inspect("select * from items where id=?");
+            }
+            StatementCounter.nextChunk();
+            statementCounter.inspect("select * from items where id=?");
+
+            assertEquals(3, scope.mostRepeatedSelect(2).orElseThrow().getValue());
+            assertEquals(3, scope.getMaxChunkStatements());
+        }
+    }
+}
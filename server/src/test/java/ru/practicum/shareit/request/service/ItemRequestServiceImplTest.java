@@ -16,6 +16,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -36,6 +37,8 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRepository itemRepository;
     @InjectMocks
     private ItemRequestServiceImpl requestService;
@@ -62,7 +65,8 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenNormallyInvoked_thenReturnItemRequestDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(requestor);
         when(requestMapper.toItemRequest(requestDto, requestor)).thenReturn(request);
         when(requestRepository.save(request)).thenReturn(request);
         when(requestMapper.toItemRequestDto(request)).thenReturn(requestDto);
@@ -71,7 +75,7 @@ class ItemRequestServiceImplTest {
 
         assertEquals(requestDto, actual);
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestMapper, times(1)).toItemRequest(requestDto, requestor);
         verify(requestMapper, times(1)).toItemRequest(requestDto, requestor);
         verify(requestRepository, times(1)).save(request);
@@ -80,11 +84,11 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenCreatedWithUnknownRequestor_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> requestService.create(userId, requestDto));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, never()).save(request);
         verify(requestMapper, never()).toItemRequestDto(request);
         verify(requestMapper, never()).toItemRequest(requestDto, requestor);
@@ -95,7 +99,8 @@ class ItemRequestServiceImplTest {
     void findByUser_whenNormallyInvoked_thenReturnListItemRequestDto() {
         List<ItemRequest> requests = Collections.singletonList(request);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(requestor);
         when(requestRepository.findAllByRequestorOrderByCreatedDesc(requestor)).thenReturn(requests);
         when(requestMapper.toItemRequestDto(request)).thenReturn(requestDto);
 
@@ -104,18 +109,18 @@ class ItemRequestServiceImplTest {
         assertEquals(1, actual.size());
         assertEquals(requestDto, actual.get(0));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, times(1)).findAllByRequestorOrderByCreatedDesc(requestor);
         verify(requestMapper, times(1)).toItemRequestDto(request);
     }
 
     @Test
     void findByUser_whenFindWithUnknownRequestor_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> requestService.findByUser(userId));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, never()).findAllByRequestorOrderByCreatedDesc(requestor);
         verify(requestMapper, never()).toItemRequestDto(request);
     }
@@ -129,7 +134,7 @@ class ItemRequestServiceImplTest {
                 .id(2L)
                 .build();
 
-        when(userRepository.findById(userIdForPageable)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userIdForPageable)).thenReturn(true);
         when(requestRepository.findAll(PageRequest.of(from / size, size, Sort.by("created"))))
                 .thenReturn(new PageImpl<>(requests));
         when(requestMapper.toItemRequestDto(request)).thenReturn(requestDto);
@@ -139,7 +144,7 @@ class ItemRequestServiceImplTest {
         assertEquals(1, actual.size());
         assertEquals(requestDto, actual.get(0));
 
-        verify(userRepository, times(1)).findById(userIdForPageable);
+        verify(userExistenceCache, times(1)).exists(userIdForPageable);
         verify(requestRepository, times(1)).findAll(PageRequest.of(from / size, size, Sort.by("created")));
         verify(requestMapper, times(1)).toItemRequestDto(request);
     }
@@ -148,43 +153,43 @@ class ItemRequestServiceImplTest {
     void findAll_whenInvokedWithoutFromParam_thenReturnEmptyList() {
         assertEquals(Collections.emptyList(), requestService.findAll(userId, null, 10));
 
-        verify(userRepository, never()).findById(userId);
+        verify(userExistenceCache, never()).exists(userId);
     }
 
     @Test
     void findAll_whenInvokedWithoutSizeParam_thenReturnEmptyList() {
         assertEquals(Collections.emptyList(), requestService.findAll(userId, 0, null));
 
-        verify(userRepository, never()).findById(userId);
+        verify(userExistenceCache, never()).exists(userId);
     }
 
     @Test
     void findAll_whenInvokedWithFailFromParam_thenReturnBadRequestException() {
         assertThrows(BadRequestException.class, () -> requestService.findAll(userId, -1, 10));
 
-        verify(userRepository, never()).findById(userId);
+        verify(userExistenceCache, never()).exists(userId);
     }
 
     @Test
     void findAll_whenInvokedWithFailSizeParam_thenReturnBadRequestException() {
         assertThrows(BadRequestException.class, () -> requestService.findAll(userId, 0, 0));
 
-        verify(userRepository, never()).findById(userId);
+        verify(userExistenceCache, never()).exists(userId);
     }
 
     @Test
     void findAll_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> requestService.findAll(userId, 0, 10));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestMapper, never()).toItemRequestDto(request);
     }
 
     @Test
     void findById_whenNormallyInvoked_thenReturnItemRequestDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
         when(requestMapper.toItemRequestDto(request)).thenReturn(requestDto);
 
@@ -192,28 +197,28 @@ class ItemRequestServiceImplTest {
 
         assertEquals(requestDto, actual);
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, times(1)).findById(requestId);
     }
 
     @Test
     void findById_whenInvokedWithUnknownUser_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> requestService.findById(userId, requestId));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, never()).findById(requestId);
     }
 
     @Test
     void findById_whenInvokedWithUnknownItemRequest_thenReturnNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(requestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> requestService.findById(userId, requestId));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistenceCache, times(1)).exists(userId);
         verify(requestRepository, times(1)).findById(requestId);
     }
 }
\ No newline at end of file
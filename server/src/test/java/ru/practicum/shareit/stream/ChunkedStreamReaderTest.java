@@ -0,0 +1,52 @@
+package ru.practicum.shareit.stream;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedStreamReaderTest {
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ChunkedStreamReader chunkedStreamReader = new ChunkedStreamReader(entityManager, 2);
+
+    @Test
+    void read_whenRowsSpanSeveralChunks_thenPassChunksAndClearAfterEach() {
+        List<List<Integer>> chunks = new ArrayList<>();
+
+        long read = chunkedStreamReader.read(IntStream.rangeClosed(1, 5).boxed(), chunk -> chunks.add(List.copyOf(chunk)));
+
+        assertEquals(5, read);
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), chunks);
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void read_whenNoRows_thenPassNothing() {
+        List<List<Integer>> chunks = new ArrayList<>();
+
+        long read = chunkedStreamReader.read(Stream.<Integer>empty(), chunks::add);
+
+        assertEquals(0, read);
+        assertTrue(chunks.isEmpty());
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void read_whenConsumerFails_thenCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> rows = Stream.of(1, 2).onClose(() -> closed.set(true));
+
+        assertThrows(IllegalStateException.class, () -> chunkedStreamReader.read(rows, chunk -> {
+            throw new IllegalStateException("Client went away");
+        }));
+
+        assertTrue(closed.get());
+    }
+}
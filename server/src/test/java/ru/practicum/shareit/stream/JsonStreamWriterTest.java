@@ -0,0 +1,77 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    @SneakyThrows
+    void forAccept_whenJsonAccepted_thenWriteArray() {
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        JsonStreamWriter writer = JsonStreamWriter.forAccept(objectMapper, request, response);
+
+        writer.write(Map.of("id", 1));
+        writer.write(Map.of("id", 2));
+        writer.close();
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("[{\"id\":1},{\"id\":2}]", response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void forAccept_whenNdjsonAccepted_thenWriteValuePerLine() {
+        request.addHeader(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-ndjson");
+        JsonStreamWriter writer = JsonStreamWriter.forAccept(objectMapper, request, response);
+
+        writer.write(Map.of("id", 1));
+        writer.write(Map.of("id", 2));
+        writer.close();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void forAccept_whenNothingWritten_thenWriteEmptyArray() {
+        JsonStreamWriter writer = JsonStreamWriter.forAccept(objectMapper, request, response);
+
+        writer.close();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void forAccept_whenAcceptHeaderInvalid_thenWriteArray() {
+        request.addHeader(HttpHeaders.ACCEPT, "not a media type");
+
+        JsonStreamWriter.forAccept(objectMapper, request, response).close();
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+    }
+
+    @Test
+    void ndjson_whenCreated_thenDisableEtagBuffering() {
+        JsonStreamWriter.ndjson(objectMapper, request, response);
+
+        assertFalse(response.isCommitted());
+        assertNull(response.getContentType());
+        assertNotNull(request.getAttribute(ShallowEtagHeaderFilter.class.getName() + ".STREAMING"));
+    }
+}
@@ -15,11 +15,13 @@ import ru.practicum.shareit.user.service.UserService;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -56,6 +58,23 @@ class UserControllerTest {
         verify(userService, times(1)).create(userDto);
     }
 
+    @SneakyThrows
+    @Test
+    void createAll_whenNormallyInvoked_thenReturnOk() {
+        when(userService.createAll(List.of(userDto)))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(post("/users/bulk")
+                        .content(mapper.writeValueAsString(List.of(userDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
+
+        verify(userService, times(1)).createAll(List.of(userDto));
+    }
+
     @SneakyThrows
     @Test
     void update_whenNormallyUpdateOnlyName_thenReturnOk() {
@@ -174,8 +193,11 @@ class UserControllerTest {
         userDtoList.add(userDto);
         userDtoList.add(user);
 
-        when(userService.findAll())
-                .thenReturn(userDtoList);
+        doAnswer(invocation -> {
+            Consumer<UserDto> users = invocation.getArgument(0);
+            userDtoList.forEach(users);
+            return null;
+        }).when(userService).findAll(any());
 
         mvc.perform(get("/users"))
                 .andExpect(status().isOk())
@@ -187,7 +209,32 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].name", is(user.getName())))
                 .andExpect(jsonPath("$[1].email", is(user.getEmail())));
 
-        verify(userService,times(1)).findAll();
+        verify(userService,times(1)).findAll(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAll_whenNdjsonAccepted_thenWriteUserPerLine() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> users = invocation.getArgument(0);
+            users.accept(userDto);
+            return null;
+        }).when(userService).findAll(any());
+
+        mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAll_whenNoUsers_thenReturnEmptyArray() {
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
     }
 
     @SneakyThrows
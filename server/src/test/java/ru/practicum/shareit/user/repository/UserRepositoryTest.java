@@ -1,5 +1,8 @@
 package ru.practicum.shareit.user.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,13 +10,19 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private final User user = User.builder()
             .name("Name")
             .email("email@mail.ru")
@@ -29,4 +38,34 @@ class UserRepositoryTest {
         assertTrue(userRepository.existsByEmail("email@mail.ru"));
         assertFalse(userRepository.existsByEmail("email@gmail.com"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findExistingEmails_whenInvoked_thenReturnOnlyStoredEmails() {
+        assertEquals(List.of("email@mail.ru"), userRepository.findExistingEmails(List.of("email@mail.ru", "email@gmail.com")));
+    }
+
+    @Test
+    void streamAllByOrderById_whenInvoked_thenStreamUsersInIdOrder() {
+        User second = userRepository.save(User.builder().name("Second").email("second@mail.ru").build());
+
+        try (Stream<User> users = userRepository.streamAllByOrderById()) {
+            assertEquals(List.of(user.getId(), second.getId()), users.map(User::getId).toList());
+        }
+    }
+
+    @Test
+    void saveAll_whenFlushed_thenInsertUsersInOneBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userRepository.flush();
+        statistics.clear();
+
+        List<User> users = userRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> User.builder().name("Name" + i).email("email" + i + "@mail.ru").build())
+                .toList());
+        userRepository.flush();
+
+        assertEquals(10, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, users.stream().mapToLong(User::getId).distinct().count());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+    @Mock
+    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
+    private final long userId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        userExistenceCache = new UserExistenceCache(userRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void exists_whenUserExists_thenQueryDatabaseOnlyOnce() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        assertTrue(userExistenceCache.exists(userId));
+        assertTrue(userExistenceCache.exists(userId));
+
+        verify(userRepository, times(1)).existsById(userId);
+    }
+
+    @Test
+    void exists_whenUserDoesNotExist_thenDoNotCacheAnswer() {
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertFalse(userExistenceCache.exists(userId));
+        assertFalse(userExistenceCache.exists(userId));
+
+        verify(userRepository, times(2)).existsById(userId);
+    }
+
+    @Test
+    void evict_whenUserIsCached_thenQueryDatabaseAgain() {
+        when(userRepository.existsById(userId)).thenReturn(true, false);
+
+        assertTrue(userExistenceCache.exists(userId));
+        userExistenceCache.evict(userId);
+
+        assertFalse(userExistenceCache.exists(userId));
+        verify(userRepository, times(2)).existsById(userId);
+    }
+}
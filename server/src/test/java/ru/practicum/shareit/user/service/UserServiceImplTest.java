@@ -1,23 +1,31 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.cache.EntityCacheEvictor;
+import ru.practicum.shareit.exception.exception.BadRequestException;
 import ru.practicum.shareit.exception.exception.ConflictException;
 import ru.practicum.shareit.exception.exception.NotFoundException;
+import ru.practicum.shareit.stream.ChunkedStreamReader;
 import ru.practicum.shareit.user.dto.UpdatedUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +34,12 @@ class UserServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private UserMapper userMapper;
+    @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+    @Spy
+    private ChunkedStreamReader chunkedStreamReader = new ChunkedStreamReader(mock(EntityManager.class), 500);
     @InjectMocks
     private UserServiceImpl userService;
     private final UserDto userDto = UserDto.builder()
@@ -65,6 +79,48 @@ class UserServiceImplTest {
         verify(userRepository, never()).save(user);
     }
 
+    @Test
+    void createAll_whenNormallyInvoked_thenSaveAllUsersAtOnce() {
+        UserDto otherUserDto = UserDto.builder().name("OtherName").email("other@test.ru").build();
+        User otherUser = User.builder().id(2L).name(otherUserDto.getName()).email(otherUserDto.getEmail()).build();
+        UserDto expectedOtherUser = UserDto.builder().id(2L).name(otherUser.getName()).email(otherUser.getEmail()).build();
+        when(userRepository.findExistingEmails(Set.of(userDto.getEmail(), otherUserDto.getEmail()))).thenReturn(List.of());
+        when(userMapper.fromUserDto(userDto)).thenReturn(user);
+        when(userMapper.fromUserDto(otherUserDto)).thenReturn(otherUser);
+        when(userRepository.saveAll(List.of(user, otherUser))).thenReturn(List.of(user, otherUser));
+        when(userMapper.toUserDto(user)).thenReturn(expectedUser);
+        when(userMapper.toUserDto(otherUser)).thenReturn(expectedOtherUser);
+
+        List<UserDto> actualUsers = userService.createAll(List.of(userDto, otherUserDto));
+
+        assertEquals(List.of(expectedUser, expectedOtherUser), actualUsers);
+        assertEquals(0, user.getId());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void createAll_whenEmailRepeats_thenReturnConflictException() {
+        assertThrows(ConflictException.class, () -> userService.createAll(List.of(userDto, userDto)));
+
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_whenEmailExists_thenReturnConflictException() {
+        when(userRepository.findExistingEmails(Set.of(userDto.getEmail()))).thenReturn(List.of(userDto.getEmail()));
+
+        assertThrows(ConflictException.class, () -> userService.createAll(List.of(userDto)));
+
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_whenEmpty_thenReturnBadRequestException() {
+        assertThrows(BadRequestException.class, () -> userService.createAll(List.of()));
+
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void update_whenNormallyUpdateNameAndEmail_thenReturnUserDto() {
         long userId = 1L;
@@ -93,6 +149,7 @@ class UserServiceImplTest {
         UserDto actualUser = userService.update(userId, updatedUserDto);
 
         assertEquals(expectedUser, actualUser);
+        verify(userExistenceCache, times(1)).evict(userId);
     }
 
     @Test
@@ -225,20 +282,24 @@ class UserServiceImplTest {
         List<User> userList = List.of(user, userForList);
         List<UserDto> expectedList = List.of(userDto, userDtoForList);
 
-        when(userRepository.findAll()).thenReturn(userList);
+        when(userRepository.streamAllByOrderById()).thenReturn(userList.stream());
         when(userMapper.toUserDto(user)).thenReturn(userDto);
         when(userMapper.toUserDto(userForList)).thenReturn(userDtoForList);
 
-        List<UserDto> actualList = userService.findAll();
+        List<UserDto> actualList = new ArrayList<>();
+        userService.findAll(actualList::add);
 
         assertEquals(expectedList, actualList);
     }
 
     @Test
     void findAll_whenNoUsersExist_thenReturnEmptyListUsersDto() {
-        when(userRepository.findAll()).thenReturn(Collections.emptyList());
+        when(userRepository.streamAllByOrderById()).thenReturn(Stream.empty());
+        List<UserDto> actualList = new ArrayList<>();
+
+        userService.findAll(actualList::add);
 
-        assertTrue(userService.findAll().isEmpty());
+        assertTrue(actualList.isEmpty());
     }
 
     @Test
@@ -248,5 +309,7 @@ class UserServiceImplTest {
         userService.deleteById(userId);
 
         verify(userRepository, times(1)).deleteById(userId);
+        verify(userExistenceCache, times(1)).evict(userId);
+        verify(entityCacheEvictor, times(1)).evictUserCascade(userId);
     }
 }
\ No newline at end of file